@@ -171,7 +171,7 @@ function App() {
                       id={item.id}
                       name={item.name}
                       price={item.basePrice}
-                      image={item.images?.[0]?.url} 
+                      image={item.mainImageUrl} 
                       brand={item.brand}
                     />
                   ))}
@@ -0,0 +1,3 @@
+package com.fashionapp.resale_backend.analytics;
+
+public record AnalyticsTotals(long views, long tryOns, long orders) {}
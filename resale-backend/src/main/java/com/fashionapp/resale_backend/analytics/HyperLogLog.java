@@ -0,0 +1,104 @@
+package com.fashionapp.resale_backend.analytics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * HyperLogLog sketch with 2^12 registers (~1.6% standard error, 4 KB serialized).
+ * Registers are packed four to an int and raised with CAS, so concurrent offers are lock-free.
+ * Sketches merge by taking the per-register maximum, which is what makes per-listing sketches
+ * add up to a per-seller unique count.
+ */
+public class HyperLogLog {
+
+    static final int PRECISION = 12;
+    static final int REGISTERS = 1 << PRECISION;
+
+    private final AtomicIntegerArray packed = new AtomicIntegerArray(REGISTERS / 4);
+
+    public void offer(String value) {
+        offerHash(hash64(value));
+    }
+
+    public void offerHash(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << PRECISION) + 1, 64 - PRECISION + 1);
+        raise(index, rank);
+    }
+
+    public void merge(byte[] registers) {
+        if (registers == null || registers.length != REGISTERS) {
+            return;
+        }
+        for (int i = 0; i < REGISTERS; i++) {
+            if (registers[i] != 0) {
+                raise(i, registers[i]);
+            }
+        }
+    }
+
+    public byte[] toBytes() {
+        byte[] out = new byte[REGISTERS];
+        for (int i = 0; i < REGISTERS; i++) {
+            out[i] = (byte) register(i);
+        }
+        return out;
+    }
+
+    public long estimate() {
+        return estimate(toBytes());
+    }
+
+    public static long estimate(byte[] registers) {
+        if (registers == null || registers.length != REGISTERS) {
+            return 0;
+        }
+        double sum = 0;
+        int zeros = 0;
+        for (byte r : registers) {
+            sum += Math.pow(2, -r);
+            if (r == 0) zeros++;
+        }
+        double m = REGISTERS;
+        double raw = (0.7213 / (1 + 1.079 / m)) * m * m / sum;
+        // Small-range correction: linear counting while many registers are still empty
+        if (raw <= 2.5 * m && zeros > 0) {
+            return Math.round(m * Math.log(m / zeros));
+        }
+        return Math.round(raw);
+    }
+
+    private int register(int index) {
+        return (packed.get(index >> 2) >>> ((index & 3) * 8)) & 0xFF;
+    }
+
+    private void raise(int index, int rank) {
+        int slot = index >> 2;
+        int shift = (index & 3) * 8;
+        while (true) {
+            int current = packed.get(slot);
+            if (((current >>> shift) & 0xFF) >= rank) {
+                return;
+            }
+            int updated = (current & ~(0xFF << shift)) | (rank << shift);
+            if (packed.compareAndSet(slot, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    // FNV-1a over UTF-8 bytes, finished with the MurmurHash3 fmix64 avalanche so the high bits are well mixed
+    static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,30 @@
+package com.fashionapp.resale_backend.analytics;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lifetime engagement totals for one listing, accumulated by {@link ListingAnalyticsService} flushes.
+ */
+@Entity
+@Table(name = "listing_analytics")
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingAnalytics {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    private long views;
+    private long tryOns;
+    private long orders;
+
+    // HyperLogLog registers of distinct viewers (see HyperLogLog)
+    @Column(length = HyperLogLog.REGISTERS)
+    private byte[] viewerSketch;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,29 @@
+package com.fashionapp.resale_backend.analytics;
+
+import com.fashionapp.resale_backend.analytics.dto.ListingAnalyticsDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ListingAnalyticsRepository extends JpaRepository<ListingAnalytics, Long> {
+
+    // Every listing of the seller, including those nobody has viewed yet
+    @Query(value = "SELECT new com.fashionapp.resale_backend.analytics.dto.ListingAnalyticsDto(" +
+            "p.id, p.name, p.status, COALESCE(a.views, 0), COALESCE(a.tryOns, 0), COALESCE(a.orders, 0), a.viewerSketch) " +
+            "FROM Product p LEFT JOIN ListingAnalytics a ON a.productId = p.id " +
+            "WHERE p.seller.id = :sellerId",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.seller.id = :sellerId")
+    Page<ListingAnalyticsDto> findBySeller(@Param("sellerId") Long sellerId, Pageable pageable);
+
+    @Query("SELECT new com.fashionapp.resale_backend.analytics.AnalyticsTotals(" +
+            "COALESCE(SUM(a.views), 0), COALESCE(SUM(a.tryOns), 0), COALESCE(SUM(a.orders), 0)) " +
+            "FROM ListingAnalytics a, Product p WHERE a.productId = p.id AND p.seller.id = :sellerId")
+    AnalyticsTotals sumBySeller(@Param("sellerId") Long sellerId);
+
+    @Query("SELECT a.viewerSketch FROM ListingAnalytics a, Product p " +
+            "WHERE a.productId = p.id AND p.seller.id = :sellerId AND a.viewerSketch IS NOT NULL ORDER BY a.productId")
+    Slice<byte[]> findSketchesBySeller(@Param("sellerId") Long sellerId, Pageable pageable);
+}
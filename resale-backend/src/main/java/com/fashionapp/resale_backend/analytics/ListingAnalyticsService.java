@@ -0,0 +1,210 @@
+package com.fashionapp.resale_backend.analytics;
+
+import com.fashionapp.resale_backend.analytics.dto.ListingAnalyticsDto;
+import com.fashionapp.resale_backend.product.ProductSalesEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listing engagement analytics. The request path only touches memory: counters are LongAdders (striped,
+ * lock-free) and distinct viewers go into a per-listing {@link HyperLogLog}. A scheduled flush adds the
+ * counter deltas to listing_analytics and merges the sketches into the stored ones, in batches.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ListingAnalyticsService {
+
+    private static final int FLUSH_BATCH_SIZE = 500;
+    private static final int SKETCH_PAGE_SIZE = 200;
+
+    private static final String UPSERT_COUNTERS =
+            "INSERT INTO listing_analytics (product_id, views, try_ons, orders, updated_at) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (product_id) DO UPDATE SET views = listing_analytics.views + EXCLUDED.views, " +
+            "try_ons = listing_analytics.try_ons + EXCLUDED.try_ons, orders = listing_analytics.orders + EXCLUDED.orders, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ListingAnalyticsRepository analyticsRepository;
+
+    private final Map<Long, LongAdder> views = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> tryOns = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> orders = new ConcurrentHashMap<>();
+    private final Map<Long, HyperLogLog> viewers = new ConcurrentHashMap<>();
+    private final Set<Long> sketchesDirty = ConcurrentHashMap.newKeySet();
+
+    public void recordView(Long productId, HttpServletRequest request) {
+        views.computeIfAbsent(productId, id -> new LongAdder()).increment();
+        viewers.computeIfAbsent(productId, id -> new HyperLogLog()).offer(viewerKey(request));
+        sketchesDirty.add(productId);
+    }
+
+    public void recordTryOn(Long productId) {
+        tryOns.computeIfAbsent(productId, id -> new LongAdder()).increment();
+    }
+
+    @TransactionalEventListener
+    public void onSales(ProductSalesEvent event) {
+        if (event.stage() == ProductSalesEvent.Stage.ORDERED) {
+            event.quantityByProduct().keySet()
+                    .forEach(productId -> orders.computeIfAbsent(productId, id -> new LongAdder()).increment());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ListingAnalyticsDto> getListingAnalytics(Long sellerId, Pageable pageable) {
+        return analyticsRepository.findBySeller(sellerId, pageable);
+    }
+
+    /**
+     * Seller-wide totals. Unique viewers is the union of the listing sketches, so a buyer who looked at
+     * several of the seller's listings is counted once.
+     */
+    @Transactional(readOnly = true)
+    public SellerAnalytics getSellerAnalytics(Long sellerId) {
+        AnalyticsTotals totals = analyticsRepository.sumBySeller(sellerId);
+        HyperLogLog union = new HyperLogLog();
+        Pageable page = PageRequest.of(0, SKETCH_PAGE_SIZE);
+        Slice<byte[]> slice;
+        do {
+            slice = analyticsRepository.findSketchesBySeller(sellerId, page);
+            slice.forEach(union::merge);
+            page = slice.nextPageable();
+        } while (slice.hasNext());
+        return new SellerAnalytics(totals, union.estimate());
+    }
+
+    public record SellerAnalytics(AnalyticsTotals totals, long uniqueViewers) {}
+
+    @Scheduled(fixedDelayString = "${app.analytics.flush-interval:PT30S}")
+    public void flush() {
+        flushCounters();
+        flushSketches();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flushCounters() {
+        Set<Long> ids = new HashSet<>(views.keySet());
+        ids.addAll(tryOns.keySet());
+        ids.addAll(orders.keySet());
+
+        List<Object[]> batch = new ArrayList<>(FLUSH_BATCH_SIZE);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Long id : ids) {
+            // sumThenReset hands each increment to exactly one flush, even under concurrent updates
+            long v = drain(views, id);
+            long t = drain(tryOns, id);
+            long o = drain(orders, id);
+            if (v + t + o == 0) {
+                continue;
+            }
+            batch.add(new Object[]{id, v, t, o, now});
+            if (batch.size() == FLUSH_BATCH_SIZE) {
+                writeCounters(batch);
+                batch = new ArrayList<>(FLUSH_BATCH_SIZE);
+            }
+        }
+        writeCounters(batch);
+    }
+
+    private void writeCounters(List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_COUNTERS, batch,
+                    new int[]{Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.TIMESTAMP});
+        }
+    }
+
+    private static long drain(Map<Long, LongAdder> counters, Long id) {
+        LongAdder adder = counters.get(id);
+        return adder != null ? adder.sumThenReset() : 0;
+    }
+
+    private void flushSketches() {
+        List<Long> dirty = new ArrayList<>(sketchesDirty);
+        sketchesDirty.removeAll(dirty);
+        Set<Long> flushed = new HashSet<>(dirty);
+
+        for (int from = 0; from < dirty.size(); from += FLUSH_BATCH_SIZE) {
+            List<Long> chunk = dirty.subList(from, Math.min(from + FLUSH_BATCH_SIZE, dirty.size()));
+            transactionTemplate.executeWithoutResult(status -> mergeSketches(chunk));
+        }
+
+        // Sketches with no new viewers since the previous flush are already fully persisted; drop them
+        viewers.keySet().removeIf(id -> !sketchesDirty.contains(id) && !flushed.contains(id));
+    }
+
+    // Read-merge-write under row locks, so concurrent flushes from several instances cannot lose registers
+    private void mergeSketches(List<Long> productIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = productIds.stream().map(id -> new Object[]{id, 0L, 0L, 0L, now}).toList();
+        jdbcTemplate.batchUpdate(UPSERT_COUNTERS, rows,
+                new int[]{Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.TIMESTAMP});
+
+        Map<Long, byte[]> stored = new HashMap<>();
+        String placeholders = String.join(",", productIds.stream().map(id -> "?").toList());
+        jdbcTemplate.query("SELECT product_id, viewer_sketch FROM listing_analytics WHERE product_id IN (" +
+                        placeholders + ") FOR UPDATE",
+                rs -> {
+                    stored.put(rs.getLong(1), rs.getBytes(2));
+                }, productIds.toArray());
+
+        List<Object[]> batch = new ArrayList<>(productIds.size());
+        for (Long id : productIds) {
+            HyperLogLog sketch = viewers.get(id);
+            if (sketch == null) {
+                continue;
+            }
+            HyperLogLog merged = new HyperLogLog();
+            merged.merge(sketch.toBytes());
+            merged.merge(stored.get(id));
+            batch.add(new Object[]{merged.toBytes(), id});
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE listing_analytics SET viewer_sketch = ? WHERE product_id = ?",
+                    batch, new int[]{Types.BINARY, Types.BIGINT});
+        }
+    }
+
+    // Signed-in buyers are identified by account; anonymous visitors by client address and user agent.
+    // The address is the one the container resolved (server.forward-headers-strategy), never a raw
+    // X-Forwarded-For, which any client can set to pose as new viewers
+    private static String viewerKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return "u:" + auth.getName();
+        }
+        return "a:" + request.getRemoteAddr() + "|" + request.getHeader("User-Agent");
+    }
+}
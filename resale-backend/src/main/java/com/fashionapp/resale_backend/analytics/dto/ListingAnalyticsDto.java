@@ -0,0 +1,31 @@
+package com.fashionapp.resale_backend.analytics.dto;
+
+import com.fashionapp.resale_backend.analytics.HyperLogLog;
+import lombok.Getter;
+
+/**
+ * Per-listing engagement. Unique viewers are estimated from the stored sketch (about ±2%).
+ */
+@Getter
+public class ListingAnalyticsDto {
+    private final Long productId;
+    private final String name;
+    private final String status;
+    private final long views;
+    private final long uniqueViewers;
+    private final long tryOns;
+    private final long orders;
+    private final double conversionRate;
+
+    public ListingAnalyticsDto(Long productId, String name, String status, long views, long tryOns, long orders,
+                               byte[] viewerSketch) {
+        this.productId = productId;
+        this.name = name;
+        this.status = status;
+        this.views = views;
+        this.uniqueViewers = HyperLogLog.estimate(viewerSketch);
+        this.tryOns = tryOns;
+        this.orders = orders;
+        this.conversionRate = uniqueViewers > 0 ? (double) orders / uniqueViewers : 0;
+    }
+}
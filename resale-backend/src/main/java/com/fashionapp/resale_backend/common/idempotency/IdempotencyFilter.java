@@ -0,0 +1,172 @@
+package com.fashionapp.resale_backend.common.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Honors an {@code Idempotency-Key} header on order placement and payment, so a client can retry those POSTs
+ * after a timeout without placing or paying twice. Requests without the header are not affected. A replayed
+ * response carries {@code Idempotent-Replayed: true}. Runs after Spring Security, so keys are scoped to the
+ * authenticated user.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final List<String> PATHS = List.of("/api/orders", "/api/payments/*");
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final IdempotencyService idempotencyService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return PATHS.stream().noneMatch(pattern -> MATCHER.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // 1. Validate the key; without a user there is nothing to scope it to (Security rejects those requests)
+        String key = request.getHeader(HEADER).trim();
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        if (auth == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // 2. Buffer the body so it can be fingerprinted and still be read by the controller
+        byte[] body = request.getInputStream().readAllBytes();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String storageKey = sha256(auth.getName(), request.getMethod() + " " + path, key);
+        String fingerprint = sha256(String.valueOf(request.getQueryString()), new String(body, StandardCharsets.UTF_8));
+
+        // 3. Run once; replays get the stored response
+        BufferedRequest bufferedRequest = new BufferedRequest(request, body);
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        IdempotencyService.Execution execution;
+        try {
+            execution = idempotencyService.execute(storageKey, fingerprint, () -> {
+                filterChain.doFilter(bufferedRequest, captured);
+                return new StoredResponse(captured.getStatus(), captured.getContentType(),
+                        captured.getContentAsByteArray(), fingerprint);
+            });
+        } catch (ResponseStatusException e) {
+            response.sendError(e.getStatusCode().value(), e.getReason());
+            return;
+        } catch (IOException | ServletException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+
+        if (!execution.replayed()) {
+            captured.copyBodyToResponse();
+            return;
+        }
+        StoredResponse stored = execution.response();
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static String sha256(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Serves an already-read body to the rest of the chain.
+     */
+    private static final class BufferedRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        BufferedRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
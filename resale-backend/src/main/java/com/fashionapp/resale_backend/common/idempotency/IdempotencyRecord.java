@@ -0,0 +1,45 @@
+package com.fashionapp.resale_backend.common.idempotency;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One Idempotency-Key seen on a retry-safe endpoint: IN_PROGRESS while the first request runs, then COMPLETED
+ * with the response that every replay returns. Rows are purged once {@code expiresAt} has passed.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_expires", columnList = "expires_at")
+})
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+
+    // SHA-256 of user, endpoint and the client's key, so keys from different users or endpoints never collide
+    @Id
+    @Column(name = "storage_key", length = 64)
+    private String storageKey;
+
+    // SHA-256 of the query string and body: the same key with a different request is rejected
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    private Integer responseStatus;
+
+    private String contentType;
+
+    private byte[] responseBody;
+
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
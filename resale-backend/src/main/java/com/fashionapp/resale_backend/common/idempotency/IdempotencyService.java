@@ -0,0 +1,276 @@
+package com.fashionapp.resale_backend.common.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a request at most once per Idempotency-Key and hands its response to every retry.
+ *
+ * <p>Completed responses are kept in a bounded in-memory cache and in the idempotency_keys table, so replays are
+ * answered without redoing any work, also after a restart or on another instance. While the first request is still
+ * running, duplicates arriving on this instance wait for its result instead of running in parallel; a duplicate on
+ * another instance finds the IN_PROGRESS row and gets 409. Only successful (2xx) responses are stored: a failed
+ * request rolled back its work, so the client may retry it with the same key.
+ *
+ * <p>The request runs in one transaction that also writes its COMPLETED row, so the order (or payment) and the
+ * record of it commit or roll back together. A claim is given up only when the request threw before returning:
+ * after that, a failure leaves the claim to its lease, and whoever takes the key over once the lease has passed
+ * finds the COMPLETED row if and only if the work committed. Work handed to another thread (asynchronous order
+ * intake) commits on its own; if the instance dies after that but before this transaction commits, a retry after
+ * the lease places the order again.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, StoredResponse> completed;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Duration inProgressLease;
+    private final Duration duplicateWait;
+
+    public record Execution(StoredResponse response, boolean replayed) {}
+
+    @FunctionalInterface
+    public interface Work {
+        StoredResponse run() throws Exception;
+    }
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.idempotency.max-cached:10000}") long maxCached,
+                              @Value("${app.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${app.idempotency.in-progress-lease:PT2M}") Duration inProgressLease,
+                              @Value("${app.idempotency.duplicate-wait:PT30S}") Duration duplicateWait) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.ttl = ttl;
+        this.inProgressLease = inProgressLease;
+        this.duplicateWait = duplicateWait;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maxCached)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "idempotency");
+    }
+
+    /**
+     * Runs {@code work} unless a request with this key already completed (or is completing right now), in which
+     * case its stored response is returned with {@code replayed} set.
+     *
+     * @throws ResponseStatusException 422 when the key was used for a different request, 409 when the first request
+     *                                 is still running elsewhere
+     */
+    public Execution execute(String storageKey, String fingerprint, Work work) throws Exception {
+        while (true) {
+            // 1. Recently completed on this instance
+            StoredResponse cached = completed.getIfPresent(storageKey);
+            if (cached != null) {
+                return replay(cached, fingerprint);
+            }
+
+            // 2. Same key already running here: wait for it rather than doing the work twice
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(storageKey, mine);
+            if (running != null) {
+                StoredResponse first = await(running);
+                if (first != null) {
+                    return replay(first, fingerprint);
+                }
+                // The first attempt failed and stored nothing: take it over
+                continue;
+            }
+
+            StoredResponse result = null;
+            boolean claimed = false;
+            AtomicBoolean returned = new AtomicBoolean();
+            try {
+                // 3. Completed or claimed by another instance, or before a restart
+                Optional<StoredResponse> stored = claim(storageKey, fingerprint);
+                if (stored.isPresent()) {
+                    result = stored.get();
+                    completed.put(storageKey, result);
+                    return replay(result, fingerprint);
+                }
+                claimed = true;
+
+                // 4. First time: run it and record a successful response in the same transaction as its writes
+                StoredResponse response;
+                try {
+                    response = transactionTemplate.execute(status -> {
+                        StoredResponse r = run(work);
+                        returned.set(true);
+                        if (isSuccess(r)) {
+                            complete(storageKey, r);
+                        } else {
+                            status.setRollbackOnly();
+                        }
+                        return r;
+                    });
+                } catch (WorkFailedException e) {
+                    throw e.getCause();
+                }
+                if (isSuccess(response)) {
+                    completed.put(storageKey, response);
+                    result = response;
+                } else {
+                    // Rolled back above, so there is nothing to protect
+                    repository.deleteById(storageKey);
+                }
+                return new Execution(response, false);
+            } catch (Exception e) {
+                if (claimed && result == null) {
+                    if (returned.get()) {
+                        // The work may have committed: keep the claim and leave it to the lease
+                        log.error("Idempotency key left IN_PROGRESS after the request returned", e);
+                    } else {
+                        release(storageKey);
+                    }
+                }
+                throw e;
+            } finally {
+                mine.complete(result);
+                inFlight.remove(storageKey, mine);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = repository.deleteExpired(now, PURGE_BATCH_SIZE);
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        if (total > 0) {
+            log.info("Purged {} expired idempotency keys", total);
+        }
+    }
+
+    /**
+     * Returns the stored response if the key already completed; otherwise records this request as IN_PROGRESS.
+     */
+    private Optional<StoredResponse> claim(String storageKey, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord record = repository.findById(storageKey).orElse(null);
+        if (record != null && record.getExpiresAt().isAfter(now)) {
+            if (IdempotencyRecord.COMPLETED.equals(record.getStatus())) {
+                return Optional.of(new StoredResponse(record.getResponseStatus(), record.getContentType(),
+                        record.getResponseBody(), record.getFingerprint()));
+            }
+            // A claim older than the lease belongs to a request that died with its instance
+            if (record.getCreatedAt().plus(inProgressLease).isAfter(now)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still in progress");
+            }
+        }
+
+        IdempotencyRecord claim = record != null ? record : new IdempotencyRecord();
+        claim.setStorageKey(storageKey);
+        claim.setFingerprint(fingerprint);
+        claim.setStatus(IdempotencyRecord.IN_PROGRESS);
+        claim.setResponseStatus(null);
+        claim.setContentType(null);
+        claim.setResponseBody(null);
+        claim.setCreatedAt(now);
+        claim.setExpiresAt(now.plus(ttl));
+        try {
+            repository.saveAndFlush(claim);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance inserted the same key between our read and write
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still in progress");
+        }
+        return Optional.empty();
+    }
+
+    private void complete(String storageKey, StoredResponse response) {
+        LocalDateTime now = LocalDateTime.now();
+        repository.saveAndFlush(new IdempotencyRecord(storageKey, response.fingerprint(), IdempotencyRecord.COMPLETED,
+                response.status(), response.contentType(), response.body(), now, now.plus(ttl)));
+    }
+
+    private static boolean isSuccess(StoredResponse response) {
+        return response.status() >= 200 && response.status() < 300;
+    }
+
+    // Carries a checked exception out of the transaction callback, rolling it back on the way
+    private static StoredResponse run(Work work) {
+        try {
+            return work.run();
+        } catch (Exception e) {
+            throw new WorkFailedException(e);
+        }
+    }
+
+    private static final class WorkFailedException extends RuntimeException {
+        WorkFailedException(Exception cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized Exception getCause() {
+            return (Exception) super.getCause();
+        }
+    }
+
+    private void release(String storageKey) {
+        try {
+            repository.deleteById(storageKey);
+        } catch (RuntimeException e) {
+            // The claim expires with its lease
+            log.warn("Could not release idempotency key: {}", e.getMessage());
+        }
+    }
+
+    private Execution replay(StoredResponse response, String fingerprint) {
+        if (!response.fingerprint().equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "This Idempotency-Key was already used for a different request");
+        }
+        return new Execution(response, true);
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(duplicateWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted");
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.fashionapp.resale_backend.common.idempotency;
+
+/**
+ * The response of the first request made with an Idempotency-Key, as returned to replays.
+ */
+public record StoredResponse(int status, String contentType, byte[] body, String fingerprint) {}
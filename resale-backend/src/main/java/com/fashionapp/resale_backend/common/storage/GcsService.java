@@ -1,5 +1,6 @@
 package com.fashionapp.resale_backend.common.storage;
 
+import com.google.cloud.storage.Blob;
 import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -56,10 +58,19 @@ public class GcsService {
     }
 
     public FileUploadResult uploadBytes(byte[] content, String fileName, String contentType) {
+        return uploadBytes(content, fileName, contentType, null);
+    }
+
+    /**
+     * Same as {@link #uploadBytes(byte[], String, String)} with an explicit Cache-Control header,
+     * which GCS also sends to its CDN edge (e.g. "public, max-age=31536000, immutable").
+     */
+    public FileUploadResult uploadBytes(byte[] content, String fileName, String contentType, String cacheControl) {
         // 1. Configure Blob metadata
         BlobId blobId = BlobId.of(bucketName, fileName);
         BlobInfo blobInfo = BlobInfo.newBuilder(blobId)
                 .setContentType(contentType)
+                .setCacheControl(cacheControl)
                 .build();
 
         // 2. Perform the upload
@@ -71,4 +82,16 @@ public class GcsService {
 
         return new FileUploadResult(publicUrl, gcsUri);
     }
-}
\ No newline at end of file
+
+    /**
+     * Object contents by name (no gs:// prefix), or empty if the object does not exist.
+     */
+    public Optional<byte[]> downloadBytes(String fileName) {
+        Blob blob = storage.get(BlobId.of(bucketName, fileName));
+        return blob != null ? Optional.of(blob.getContent()) : Optional.empty();
+    }
+
+    public void deleteObject(String fileName) {
+        storage.delete(BlobId.of(bucketName, fileName));
+    }
+}
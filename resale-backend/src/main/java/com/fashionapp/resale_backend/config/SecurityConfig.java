@@ -1,5 +1,7 @@
 package com.fashionapp.resale_backend.config;
 
+import com.fashionapp.resale_backend.common.idempotency.IdempotencyFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -48,10 +50,14 @@ public class SecurityConfig {
 
                         .requestMatchers("/error").permitAll()
 
+                        // SSE streams resume on an async dispatch that the JWT filter skips; the request was authorized already
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
 
                         .requestMatchers("/api/users/register", "/api/users/login").permitAll()
 
                         .requestMatchers(HttpMethod.GET, "/api/products", "/api/products/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/products/batch").permitAll()
                         .requestMatchers("/api/categories", "/api/categories/**").permitAll()
                         .requestMatchers("/api/payment/vnpay-callback").permitAll()
 
@@ -81,7 +87,9 @@ public class SecurityConfig {
 
 
         corsConfiguration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
-        corsConfiguration.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept", "X-Requested-With"));
+        corsConfiguration.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept", "X-Requested-With",
+                IdempotencyFilter.HEADER));
+        corsConfiguration.setExposedHeaders(List.of(IdempotencyFilter.REPLAYED_HEADER));
 
 
         corsConfiguration.setAllowCredentials(true);
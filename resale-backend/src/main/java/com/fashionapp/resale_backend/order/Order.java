@@ -26,6 +26,7 @@ public class Order {
     private Double totalAmount;
 
     // Industrial Standards: PENDING_PAYMENT, PAID, SHIPPED, DELIVERED, CANCELLED
+    // (plus PAID_OUT_OF_STOCK: paid after its stock hold expired and sold out, awaiting a refund)
     private String status;
 
     // Added to track the chosen checkout method
@@ -1,33 +1,81 @@
 package com.fashionapp.resale_backend.order;
 
 import com.fashionapp.resale_backend.order.dto.OrderCreateDto;
+import com.fashionapp.resale_backend.order.dto.OrderIntakeStatusDto;
 import com.fashionapp.resale_backend.order.dto.OrderResponseDto;
+import com.fashionapp.resale_backend.product.InsufficientStockException;
+import com.fashionapp.resale_backend.product.flashsale.FlashSaleService;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
     private final OrderService orderService;
+    private final FlashSaleService flashSaleService;
+    private final OrderIntakeService orderIntakeService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, FlashSaleService flashSaleService,
+                           OrderIntakeService orderIntakeService) {
         this.orderService = orderService;
+        this.flashSaleService = flashSaleService;
+        this.orderIntakeService = orderIntakeService;
     }
 
+    /**
+     * Places the order and answers with it. With {@code Prefer: respond-async} the order is only validated and queued:
+     * the answer is 202 with a ticket to poll at the Location URL or to subscribe to at its /events stream.
+     */
     @PostMapping
-    public ResponseEntity<OrderResponseDto> placeOrder(@RequestBody OrderCreateDto dto,HttpServletRequest request) {
+    public ResponseEntity<?> placeOrder(@RequestBody OrderCreateDto dto, HttpServletRequest request,
+                                        @RequestHeader(value = "Prefer", required = false) String prefer) {
         // Extract the client's IP address
         String ipAddress = request.getRemoteAddr();
 
+        // Carts with flash-sale variants queue for a checkout permit (and are turned away early once sold out)
+        Map<Long, Integer> quantityByVariant = new HashMap<>();
+        if (dto.getItems() != null) {
+            dto.getItems().forEach(item -> {
+                if (item.getProductVariantId() != null && item.getQuantity() != null) {
+                    quantityByVariant.merge(item.getProductVariantId(), item.getQuantity(), Integer::sum);
+                }
+            });
+        }
+
+        if (prefer != null && prefer.contains("respond-async") && orderIntakeService.isEnabled()) {
+            OrderIntakeStatusDto ticket = orderIntakeService.submit(dto, ipAddress, quantityByVariant);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/orders/intake/" + ticket.ticketId()))
+                    .header("Preference-Applied", "respond-async")
+                    .body(ticket);
+        }
+
         // Pass the IP to the service
-        OrderResponseDto response = orderService.placeOrder(dto, ipAddress);
+        OrderResponseDto response = flashSaleService.admit(quantityByVariant, () -> orderService.placeOrder(dto, ipAddress));
 
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/intake/{ticketId}")
+    public ResponseEntity<OrderIntakeStatusDto> getIntakeStatus(@PathVariable String ticketId) {
+        return ResponseEntity.ok(orderIntakeService.getStatus(ticketId));
+    }
+
+    // Server-sent "status" events: the current state, every change, and the stream closes once COMPLETED or FAILED
+    @GetMapping(value = "/intake/{ticketId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToIntake(@PathVariable String ticketId) {
+        return orderIntakeService.subscribe(ticketId);
+    }
+
     @GetMapping("/my-history")
     public ResponseEntity<List<OrderResponseDto>> getMyOrderHistory() {
         return ResponseEntity.ok(orderService.getMyOrderHistory());
@@ -42,4 +90,10 @@ public class OrderController {
     public ResponseEntity<OrderResponseDto> getOrderDetail(@PathVariable Long orderId) {
         return ResponseEntity.ok(orderService.getOrderDetail(orderId));
     }
-}
\ No newline at end of file
+
+    // Problem detail with a "shortfalls" array: one entry per variant that is short, with requested and available units
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ProblemDetail> handleInsufficientStock(InsufficientStockException e) {
+        return ResponseEntity.of(e.getBody()).build();
+    }
+}
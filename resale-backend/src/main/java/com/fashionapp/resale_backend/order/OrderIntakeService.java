@@ -0,0 +1,222 @@
+package com.fashionapp.resale_backend.order;
+
+import com.fashionapp.resale_backend.order.dto.OrderCreateDto;
+import com.fashionapp.resale_backend.order.dto.OrderIntakeStatusDto;
+import com.fashionapp.resale_backend.order.dto.OrderItemDto;
+import com.fashionapp.resale_backend.order.dto.OrderResponseDto;
+import com.fashionapp.resale_backend.product.flashsale.FlashSaleService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous order intake: the request is validated and queued, the caller gets a ticket right away, and a
+ * virtual thread runs {@link OrderService#placeOrder} later. At most {@code app.orders.intake.workers} placements
+ * run at once (so a peak cannot take every database connection) and at most {@code max-queued} wait; beyond that
+ * submissions get 503. Each stage (queue wait, the placement stages, commit) is recorded as a Micrometer timer and
+ * on the ticket, which clients poll or subscribe to over SSE.
+ */
+@Slf4j
+@Service
+public class OrderIntakeService {
+
+    private static final Set<String> PAYMENT_METHODS = Set.of("COD", "VNPAY", "WALLET");
+
+    private final OrderService orderService;
+    private final FlashSaleService flashSaleService;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxQueued;
+    private final Duration subscribeTimeout;
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("order-intake-", 0).factory());
+    private final Semaphore workers;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Cache<String, OrderIntakeTicket> tickets;
+
+    public OrderIntakeService(OrderService orderService,
+                              FlashSaleService flashSaleService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.orders.intake.enabled:true}") boolean enabled,
+                              @Value("${app.orders.intake.workers:16}") int workers,
+                              @Value("${app.orders.intake.max-queued:1000}") int maxQueued,
+                              @Value("${app.orders.intake.result-ttl:PT30M}") Duration resultTtl,
+                              @Value("${app.orders.intake.subscribe-timeout:PT2M}") Duration subscribeTimeout) {
+        this.orderService = orderService;
+        this.flashSaleService = flashSaleService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxQueued = maxQueued;
+        this.subscribeTimeout = subscribeTimeout;
+        this.workers = new Semaphore(workers, true);
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(resultTtl)
+                .build();
+        meterRegistry.gauge("order.intake.queued", queued);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Validates the order and queues it for placement.
+     *
+     * @param quantityByVariant the cart merged by variant, for flash-sale admission
+     */
+    public OrderIntakeStatusDto submit(OrderCreateDto dto, String ipAddress, Map<Long, Integer> quantityByVariant) {
+        // 1. Reject what placeOrder would reject without touching the database
+        validate(dto);
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Order intake is full, please retry");
+        }
+
+        // 2. The worker runs as the submitting buyer
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        OrderIntakeTicket ticket = new OrderIntakeTicket(UUID.randomUUID().toString(), auth.getName(), executor);
+        tickets.put(ticket.getId(), ticket);
+        long submitted = System.nanoTime();
+        try {
+            executor.execute(() -> process(ticket, dto, ipAddress, quantityByVariant, auth, submitted));
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            queued.decrementAndGet();
+            tickets.invalidate(ticket.getId());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Order intake is stopping, please retry");
+        }
+        return ticket.toStatus();
+    }
+
+    public OrderIntakeStatusDto getStatus(String ticketId) {
+        return findOwn(ticketId).toStatus();
+    }
+
+    public SseEmitter subscribe(String ticketId) {
+        OrderIntakeTicket ticket = findOwn(ticketId);
+        SseEmitter emitter = new SseEmitter(subscribeTimeout.toMillis());
+        ticket.subscribe(emitter);
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Let queued orders finish; their buyers were already told they are being placed
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Order intake stopped with {} orders still queued", queued.get());
+        }
+    }
+
+    private void process(OrderIntakeTicket ticket, OrderCreateDto dto, String ipAddress,
+                         Map<Long, Integer> quantityByVariant, Authentication auth, long submitted) {
+        Map<String, Long> stages = new LinkedHashMap<>();
+        OrderResponseDto order = null;
+        ProblemDetail error = null;
+        boolean acquired = false;
+        try {
+            // 1. Queue: wait for a worker slot
+            workers.acquire();
+            acquired = true;
+            queued.decrementAndGet();
+            stages.put("queue", record("queue", System.nanoTime() - submitted));
+            ticket.processing(stages);
+
+            // 2. Placement, in the same transaction and with the same checks as the synchronous path
+            SecurityContextHolder.getContext().setAuthentication(auth);
+            OrderStageTimer timer = new OrderStageTimer(meterRegistry);
+            long started = System.nanoTime();
+            order = flashSaleService.admit(quantityByVariant,
+                    () -> orderService.placeOrder(dto, ipAddress, timer));
+            long placement = System.nanoTime() - started;
+
+            // 3. What placeOrder's stages do not cover is mostly the commit
+            stages.putAll(timer.getStageMillis());
+            long inner = timer.getStageMillis().values().stream().mapToLong(Long::longValue).sum();
+            stages.put("commit", Math.max(0, TimeUnit.NANOSECONDS.toMillis(placement) - inner));
+            record("total", System.nanoTime() - submitted);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, "Order intake stopped");
+        } catch (ResponseStatusException e) {
+            // e.g. insufficient stock, with its shortfalls
+            error = e.getBody();
+        } catch (RuntimeException e) {
+            // Same status as the synchronous endpoint, and like its default error page no internals in the detail
+            log.error("Async order {} failed", ticket.getId(), e);
+            error = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "The order could not be placed");
+        } finally {
+            SecurityContextHolder.clearContext();
+            if (acquired) {
+                workers.release();
+            } else {
+                queued.decrementAndGet();
+            }
+        }
+
+        // 4. Publish the outcome only once the worker slot is free again
+        if (error == null) {
+            ticket.completed(stages, order);
+        } else {
+            ticket.failed(stages, error);
+        }
+    }
+
+    private long record(String stage, long nanos) {
+        meterRegistry.timer("order.intake.stage", "stage", stage).record(nanos, TimeUnit.NANOSECONDS);
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private OrderIntakeTicket findOwn(String ticketId) {
+        OrderIntakeTicket ticket = tickets.getIfPresent(ticketId);
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        // Someone else's ticket is reported the same as an unknown one
+        if (ticket == null || !ticket.getBuyerEmail().equals(email)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Order ticket not found");
+        }
+        return ticket;
+    }
+
+    private static void validate(OrderCreateDto dto) {
+        List<OrderItemDto> items = dto.getItems();
+        if (items == null || items.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "An order needs at least one item");
+        }
+        for (OrderItemDto item : items) {
+            if (item.getProductVariantId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Each item needs a productVariantId and a quantity greater than zero");
+            }
+        }
+        if (dto.getPaymentMethod() == null || !PAYMENT_METHODS.contains(dto.getPaymentMethod().toUpperCase())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "paymentMethod must be one of " + PAYMENT_METHODS);
+        }
+        if (dto.getAddressId() == null && dto.getStreetAddress() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Shipping address details are required");
+        }
+    }
+}
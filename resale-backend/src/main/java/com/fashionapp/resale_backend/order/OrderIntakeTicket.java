@@ -0,0 +1,170 @@
+package com.fashionapp.resale_backend.order;
+
+import com.fashionapp.resale_backend.order.dto.OrderIntakeStatusDto;
+import com.fashionapp.resale_backend.order.dto.OrderResponseDto;
+import lombok.Getter;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One order going through asynchronous intake, from QUEUED to COMPLETED or FAILED.
+ * State changes are pushed to the SSE subscribers; the terminal one also completes their streams. The monitor only
+ * guards the state: pushes run on {@code notifier}, outside it, so a slow subscriber never holds up the worker
+ * that placed the order. Each push carries a revision, and a subscriber skips any older than the last it was sent.
+ */
+class OrderIntakeTicket {
+
+    static final String QUEUED = "QUEUED";
+    static final String PROCESSING = "PROCESSING";
+    static final String COMPLETED = "COMPLETED";
+    static final String FAILED = "FAILED";
+
+    @Getter
+    private final String id;
+    @Getter
+    private final String buyerEmail;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final Executor notifier;
+    private final List<Subscriber> subscribers = new ArrayList<>();
+
+    private long revision;
+    private String status = QUEUED;
+    private Map<String, Long> stageMillis = Map.of();
+    private OrderResponseDto order;
+    private ProblemDetail error;
+
+    OrderIntakeTicket(String id, String buyerEmail, Executor notifier) {
+        this.id = id;
+        this.buyerEmail = buyerEmail;
+        this.notifier = notifier;
+    }
+
+    synchronized OrderIntakeStatusDto toStatus() {
+        return new OrderIntakeStatusDto(id, status, submittedAt, stageMillis, order, error);
+    }
+
+    void processing(Map<String, Long> stages) {
+        update(PROCESSING, stages, null, null);
+    }
+
+    void completed(Map<String, Long> stages, OrderResponseDto order) {
+        update(COMPLETED, stages, order, null);
+    }
+
+    void failed(Map<String, Long> stages, ProblemDetail error) {
+        update(FAILED, stages, null, error);
+    }
+
+    /**
+     * Streams the current state now and every later change; the stream ends with the terminal state.
+     */
+    void subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        long current;
+        OrderIntakeStatusDto snapshot;
+        boolean done;
+        synchronized (this) {
+            current = revision;
+            snapshot = toStatus();
+            done = isDone();
+            if (!done) {
+                subscribers.add(subscriber);
+                emitter.onCompletion(() -> unsubscribe(subscriber));
+                emitter.onTimeout(() -> unsubscribe(subscriber));
+            }
+        }
+        // On the subscribing request's own thread
+        subscriber.push(current, snapshot, done);
+    }
+
+    private synchronized void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    private void update(String status, Map<String, Long> stages, OrderResponseDto order, ProblemDetail error) {
+        long current;
+        OrderIntakeStatusDto snapshot;
+        boolean done;
+        List<Subscriber> targets;
+        synchronized (this) {
+            this.status = status;
+            this.stageMillis = Collections.unmodifiableMap(new LinkedHashMap<>(stages));
+            this.order = order;
+            this.error = error;
+            current = ++revision;
+            snapshot = toStatus();
+            done = isDone();
+            targets = List.copyOf(subscribers);
+            if (done) {
+                subscribers.clear();
+            }
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+        Runnable push = () -> targets.forEach(subscriber -> subscriber.push(current, snapshot, done));
+        try {
+            notifier.execute(push);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: tell them from here
+            push.run();
+        }
+    }
+
+    private boolean isDone() {
+        return COMPLETED.equals(status) || FAILED.equals(status);
+    }
+
+    /**
+     * One SSE stream. A lock rather than a monitor, so a virtual thread blocked on a slow client does not pin its
+     * carrier.
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private long sent = -1;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void push(long revision, OrderIntakeStatusDto status, boolean last) {
+            lock.lock();
+            try {
+                if (closed || revision <= sent) {
+                    return;
+                }
+                sent = revision;
+                if (!send(status) || last) {
+                    closed = true;
+                    emitter.complete();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean send(OrderIntakeStatusDto status) {
+            try {
+                emitter.send(SseEmitter.event().name("status").data(status));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // Client went away
+                return false;
+            }
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.fashionapp.resale_backend.order;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -14,4 +16,8 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     @Query("SELECT DISTINCT o FROM Order o JOIN o.items i WHERE i.productVariant.product.seller.id = :sellerId ORDER BY o.orderDate DESC")
     List<Order> findOrdersBySellerId(@Param("sellerId") Long sellerId);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = 'EXPIRED' WHERE o.id IN :ids AND o.status = 'AWAITING_PAYMENT'")
+    int expireAwaitingPayment(@Param("ids") Collection<Long> ids);
+}
@@ -7,20 +7,31 @@ import com.fashionapp.resale_backend.order.dto.OrderItemDto;
 import com.fashionapp.resale_backend.order.dto.OrderResponseDto;
 import com.fashionapp.resale_backend.payment.PaymentService;
 import com.fashionapp.resale_backend.payment.VNPayService;
+import com.fashionapp.resale_backend.product.ProductChangedEvent;
+import com.fashionapp.resale_backend.product.ProductSalesEvent;
 import com.fashionapp.resale_backend.product.ProductVariant;
-import com.fashionapp.resale_backend.product.ProductVariantRepository;
+import com.fashionapp.resale_backend.product.VariantStockService;
+import com.fashionapp.resale_backend.product.flashsale.FlashSaleService;
 import com.fashionapp.resale_backend.shipping.Shipping;
 import com.fashionapp.resale_backend.shipping.ShippingRepository;
 import com.fashionapp.resale_backend.user.User;
 import com.fashionapp.resale_backend.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,15 +40,24 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
-    private final ProductVariantRepository variantRepository;
+    private final VariantStockService variantStockService;
+    private final FlashSaleService flashSaleService;
     private final AddressRepository addressRepository;
     private final ShippingRepository shippingRepository;
+    private final StockReservationService reservationService;
 
     private final VNPayService vnpayService;
     private final PaymentService paymentService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
     @Transactional
     public OrderResponseDto placeOrder(OrderCreateDto dto,String ipAddress) {
+        return placeOrder(dto, ipAddress, new OrderStageTimer(meterRegistry));
+    }
+
+    @Transactional
+    public OrderResponseDto placeOrder(OrderCreateDto dto, String ipAddress, OrderStageTimer timer) {
         //  Authenticate Buyer via Security Context
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         User buyer = userRepository.findByEmail(email)
@@ -47,23 +67,32 @@ public class OrderService {
         order.setBuyer(buyer);
         order.setOrderDate(LocalDateTime.now());
         order.setItems(new ArrayList<>());
+        timer.stage("buyer");
 
 
+        //  Take Stock: one batched conditional decrement for the whole cart, then one query for the variants
+        Map<Long, Integer> quantityByVariant = new HashMap<>();
+        for (var itemDto : dto.getItems()) {
+            if (itemDto.getProductVariantId() == null || itemDto.getQuantity() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Each item needs a productVariantId and a quantity");
+            }
+            quantityByVariant.merge(itemDto.getProductVariantId(), itemDto.getQuantity(), Integer::sum);
+        }
+        Map<Long, ProductVariant> variants = variantStockService.decrement(quantityByVariant);
+        timer.stage("stock");
 
         double total = 0;
+        Set<Long> touchedProductIds = new HashSet<>();
+        Map<Long, Integer> unitsByProduct = new HashMap<>();
 
-        //  Process Items & Validate Stock
+        //  Build Order Items in cart order
         for (var itemDto : dto.getItems()) {
-            ProductVariant variant = variantRepository.findById(itemDto.getProductVariantId())
-                    .orElseThrow(() -> new RuntimeException("Variant not found: " + itemDto.getProductVariantId()));
-
-            if (variant.getStockQuantity() < itemDto.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for: " + variant.getProduct().getName());
+            ProductVariant variant = variants.get(itemDto.getProductVariantId());
+            // Flash-sale units reach the database (and the derived indexes) with the sale's next flush
+            if (!flashSaleService.isFlashSale(variant.getId())) {
+                touchedProductIds.add(variant.getProduct().getId());
             }
-
-            // Immediate inventory deduction
-            variant.setStockQuantity(variant.getStockQuantity() - itemDto.getQuantity());
-            variantRepository.save(variant);
+            unitsByProduct.merge(variant.getProduct().getId(), itemDto.getQuantity(), Integer::sum);
 
             OrderItem item = new OrderItem();
             item.setOrder(order);
@@ -76,6 +105,11 @@ public class OrderService {
         }
 
         order.setTotalAmount(total);
+        // Stock changed: the version, listing row and derived indexes (facets, search) refresh after commit
+        if (!touchedProductIds.isEmpty()) {
+            eventPublisher.publishEvent(ProductChangedEvent.stock(touchedProductIds));
+        }
+        eventPublisher.publishEvent(new ProductSalesEvent(unitsByProduct, ProductSalesEvent.Stage.ORDERED));
         //  Set Payment Intent & Initial Status
         order.setPaymentMethod(dto.getPaymentMethod());
         if ("COD".equalsIgnoreCase(dto.getPaymentMethod())) {
@@ -93,6 +127,11 @@ public class OrderService {
             order.setStatus("AWAITING_PAYMENT");
         }
         Order savedOrder = orderRepository.save(order);
+        if ("VNPAY".equalsIgnoreCase(dto.getPaymentMethod())) {
+            // Units go back on sale if the payment does not arrive in time
+            reservationService.hold(savedOrder.getId(), quantityByVariant, variants);
+        }
+        timer.stage("order");
 
         //  Create Shipping Snapshot (The Legal Record)
         Shipping shipping = new Shipping();
@@ -117,6 +156,7 @@ public class OrderService {
         }
 
         shippingRepository.save(shipping);
+        timer.stage("shipping");
 
         // 5. Build Response and Generate VNPay URL
         OrderResponseDto response = mapToOrderResponse(savedOrder, shipping);
@@ -129,6 +169,7 @@ public class OrderService {
         if ("WALLET".equalsIgnoreCase(dto.getPaymentMethod())) {
             paymentService.processPayment(savedOrder.getId(), "WALLET");
         }
+        timer.stage("payment");
 
         return response;
     }
@@ -0,0 +1,38 @@
+package com.fashionapp.resale_backend.order;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits one order placement into consecutive named stages. Each stage is recorded as the
+ * {@code order.placement.stage} timer tagged with its name, and kept here for the intake status.
+ */
+public class OrderStageTimer {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Long> stageMillis = new LinkedHashMap<>();
+    private long mark = System.nanoTime();
+
+    public OrderStageTimer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Ends the current stage under {@code name} and starts the next one.
+     */
+    public void stage(String name) {
+        long now = System.nanoTime();
+        long elapsed = now - mark;
+        mark = now;
+        meterRegistry.timer("order.placement.stage", "stage", name).record(elapsed, TimeUnit.NANOSECONDS);
+        stageMillis.merge(name, TimeUnit.NANOSECONDS.toMillis(elapsed), Long::sum);
+    }
+
+    public Map<String, Long> getStageMillis() {
+        return Collections.unmodifiableMap(stageMillis);
+    }
+}
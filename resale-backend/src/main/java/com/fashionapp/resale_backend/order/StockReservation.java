@@ -0,0 +1,48 @@
+package com.fashionapp.resale_backend.order;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock taken out of sale for an order that has not been paid yet (VNPay checkout).
+ * HELD until the payment arrives (CONVERTED) or the hold expires and the units go back on sale (RELEASED).
+ * Managed by {@link StockReservationService}.
+ */
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "idx_reservation_status_expires", columnList = "status, expires_at"),
+        @Index(name = "idx_reservation_order", columnList = "order_id")
+})
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+    public static final String HELD = "HELD";
+    public static final String CONVERTED = "CONVERTED";
+    public static final String RELEASED = "RELEASED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Long variantId;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    private int quantity;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime createdAt;
+}
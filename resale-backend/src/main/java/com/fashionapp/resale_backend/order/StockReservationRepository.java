@@ -0,0 +1,28 @@
+package com.fashionapp.resale_backend.order;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    // SKIP LOCKED: concurrent sweepers (several app instances) each take a disjoint batch instead of queueing
+    @Query(value = "SELECT * FROM stock_reservations WHERE status = 'HELD' AND expires_at <= :now " +
+            "ORDER BY expires_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<StockReservation> lockExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    List<StockReservation> findByOrderIdAndStatus(Long orderId, String status);
+
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :to WHERE r.orderId = :orderId AND r.status = :from")
+    int updateStatusByOrderId(@Param("orderId") Long orderId, @Param("from") String from, @Param("to") String to);
+
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = 'RELEASED' WHERE r.id IN :ids")
+    int markReleased(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,143 @@
+package com.fashionapp.resale_backend.order;
+
+import com.fashionapp.resale_backend.product.ProductChangedEvent;
+import com.fashionapp.resale_backend.product.ProductVariant;
+import com.fashionapp.resale_backend.product.VariantStockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Time-boxed holds on stock for orders paid through VNPay. Checkout already takes the units out of stock;
+ * the hold records them with an expiry just past the VNPay payment window. A successful payment converts the
+ * hold into a sale, and a sweep returns the units of unpaid orders to stock and marks those orders EXPIRED.
+ *
+ * <p>The sweep works in batches ordered by expiry and locks each batch with {@code SKIP LOCKED}, so several app
+ * instances can sweep at once, and a payment arriving at the same moment either waits for the batch (and then sees
+ * the hold released) or holds the row first (and the sweep skips it).
+ */
+@Slf4j
+@Service
+public class StockReservationService {
+
+    private final StockReservationRepository reservationRepository;
+    private final OrderRepository orderRepository;
+    private final VariantStockService variantStockService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration holdDuration;
+    private final int sweepBatchSize;
+
+    public StockReservationService(StockReservationRepository reservationRepository,
+                                   OrderRepository orderRepository,
+                                   VariantStockService variantStockService,
+                                   ApplicationEventPublisher eventPublisher,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${app.reservations.payment-ttl:PT15M}") Duration paymentTtl,
+                                   @Value("${app.reservations.release-grace:PT5M}") Duration releaseGrace,
+                                   @Value("${app.reservations.sweep-batch-size:500}") int sweepBatchSize) {
+        this.reservationRepository = reservationRepository;
+        this.orderRepository = orderRepository;
+        this.variantStockService = variantStockService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        // The grace covers callbacks that arrive shortly after VNPay's own expiry
+        this.holdDuration = paymentTtl.plus(releaseGrace);
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    /**
+     * Records the stock already taken for {@code orderId} as held until the payment window closes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void hold(Long orderId, Map<Long, Integer> quantityByVariant, Map<Long, ProductVariant> variants) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(holdDuration);
+        List<StockReservation> holds = new ArrayList<>(quantityByVariant.size());
+        quantityByVariant.forEach((variantId, quantity) -> holds.add(new StockReservation(null, orderId, variantId,
+                variants.get(variantId).getProduct().getId(), quantity, StockReservation.HELD, expiresAt, now)));
+        reservationRepository.saveAll(holds);
+    }
+
+    /**
+     * Turns the order's holds into a sale. If the sweep got there first and released them, the stock is taken again,
+     * which throws {@link com.fashionapp.resale_backend.product.InsufficientStockException} when it has sold out since.
+     * Call before the order row is changed, so payments and the sweep lock reservations, variants and orders
+     * in the same order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void convert(Order order) {
+        reservationRepository.updateStatusByOrderId(order.getId(), StockReservation.HELD, StockReservation.CONVERTED);
+        // A sweep batch may have released some or all of the order's holds (orders placed before holds existed have none)
+        List<StockReservation> released = reservationRepository.findByOrderIdAndStatus(order.getId(), StockReservation.RELEASED);
+        if (released.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> quantityByVariant = new HashMap<>();
+        Set<Long> productIds = new HashSet<>();
+        for (StockReservation r : released) {
+            quantityByVariant.merge(r.getVariantId(), r.getQuantity(), Integer::sum);
+            productIds.add(r.getProductId());
+        }
+        variantStockService.decrement(quantityByVariant);
+        reservationRepository.updateStatusByOrderId(order.getId(), StockReservation.RELEASED, StockReservation.CONVERTED);
+        eventPublisher.publishEvent(ProductChangedEvent.stock(productIds));
+        log.info("Late payment for order {}: re-took {} released holds", order.getId(), released.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservations.sweep-interval:PT30S}")
+    public void releaseExpired() {
+        int total = 0;
+        int released;
+        do {
+            released = transactionTemplate.execute(status -> releaseBatch(LocalDateTime.now()));
+            total += released;
+        } while (released == sweepBatchSize);
+        if (total > 0) {
+            log.info("Released {} expired stock holds", total);
+        }
+    }
+
+    private int releaseBatch(LocalDateTime now) {
+        // 1. Lock the oldest expired holds; rows another sweeper or a payment holds are skipped
+        List<StockReservation> expired = reservationRepository.lockExpired(now, sweepBatchSize);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        // 2. Return the units to stock in one batched update
+        Map<Long, Integer> quantityByVariant = new HashMap<>();
+        Set<Long> productIds = new HashSet<>();
+        List<Long> ids = new ArrayList<>(expired.size());
+        Set<Long> orderIds = new HashSet<>();
+        for (StockReservation r : expired) {
+            quantityByVariant.merge(r.getVariantId(), r.getQuantity(), Integer::sum);
+            productIds.add(r.getProductId());
+            ids.add(r.getId());
+            orderIds.add(r.getOrderId());
+        }
+        variantStockService.restore(quantityByVariant);
+
+        // 3. Mark the holds released and their orders expired
+        reservationRepository.markReleased(ids);
+        orderRepository.expireAwaitingPayment(orderIds);
+
+        // 4. Stock changed: derived indexes refresh after commit
+        eventPublisher.publishEvent(ProductChangedEvent.stock(productIds));
+        return expired.size();
+    }
+}
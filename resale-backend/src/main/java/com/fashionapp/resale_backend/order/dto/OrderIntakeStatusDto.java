@@ -0,0 +1,20 @@
+package com.fashionapp.resale_backend.order.dto;
+
+import org.springframework.http.ProblemDetail;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Progress of an order submitted for asynchronous intake. {@code status} is QUEUED, PROCESSING, COMPLETED or FAILED;
+ * {@code order} is set once COMPLETED and {@code error} once FAILED (the response a synchronous call would have given).
+ * {@code stageMillis} is how long each stage took so far: queue, then the placement stages, then commit.
+ */
+public record OrderIntakeStatusDto(
+        String ticketId,
+        String status,
+        LocalDateTime submittedAt,
+        Map<String, Long> stageMillis,
+        OrderResponseDto order,
+        ProblemDetail error
+) {}
@@ -21,6 +21,6 @@ public class Payment {
 
     private Double amount;
     private String paymentMethod; // e.g., "STRIPE", "MOMO", "VNPAY"
-    private String status; // e.g., "SUCCESS", "FAILED"
+    private String status; // e.g., "SUCCESS", "FAILED", "REFUND_REQUIRED"
     private LocalDateTime paymentDate = LocalDateTime.now();
 }
\ No newline at end of file
@@ -1,20 +1,32 @@
 package com.fashionapp.resale_backend.payment;
 
 import com.fashionapp.resale_backend.order.Order;
+import com.fashionapp.resale_backend.order.OrderItem;
 import com.fashionapp.resale_backend.order.OrderRepository;
+import com.fashionapp.resale_backend.order.StockReservationService;
 import com.fashionapp.resale_backend.payment.dto.PaymentResponseDto;
+import com.fashionapp.resale_backend.product.ProductSalesEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class PaymentService {
 
+    public static final String REFUND_REQUIRED = "REFUND_REQUIRED";
+    public static final String PAID_OUT_OF_STOCK = "PAID_OUT_OF_STOCK";
+
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
     private final PayoutService payoutService;
+    private final StockReservationService reservationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public PaymentResponseDto processPayment(Long orderId, String method) {
@@ -43,6 +55,13 @@ public class PaymentService {
         if ("PAID".equals(order.getStatus()) && existingPayment.isPresent()) {
             return mapToPaymentResponse(existingPayment.get());
         }
+        // Already recorded as paid but unfulfillable: a repeated callback must not sell it after all
+        if (PAID_OUT_OF_STOCK.equals(order.getStatus()) && existingPayment.isPresent()) {
+            return mapToPaymentResponse(existingPayment.get());
+        }
+
+        // Turn the stock hold into a sale before touching the order (same lock order as the expiry sweep)
+        reservationService.convert(order);
 
         // Create the Payment record
         Payment payment = new Payment();
@@ -56,12 +75,45 @@ public class PaymentService {
         order.setStatus("PAID");
         orderRepository.save(order);
 
+        // Paid units are a stronger popularity signal than placed ones
+        Map<Long, Integer> unitsByProduct = new HashMap<>();
+        for (OrderItem item : order.getItems()) {
+            unitsByProduct.merge(item.getProductVariant().getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        eventPublisher.publishEvent(new ProductSalesEvent(unitsByProduct, ProductSalesEvent.Stage.PAID));
+
         Payment savedPayment = paymentRepository.save(payment);
         payoutService.createPayout(orderId);
 
         return mapToPaymentResponse(savedPayment);
     }
 
+    /**
+     * Records money VNPay captured for an order whose stock was gone by the time the payment arrived (the hold had
+     * expired). Runs in its own transaction because the payment attempt rolled back: the Payment row is kept as
+     * REFUND_REQUIRED and the order as PAID_OUT_OF_STOCK, so the refund can be found and issued.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public PaymentResponseDto recordOutOfStockPayment(Long orderId, String method, double amount) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        var existingPayment = paymentRepository.findByOrderId(orderId);
+        if (existingPayment.isPresent()) {
+            return mapToPaymentResponse(existingPayment.get());
+        }
+
+        Payment payment = new Payment();
+        payment.setOrder(order);
+        payment.setAmount(amount);
+        payment.setPaymentMethod(method);
+        payment.setStatus(REFUND_REQUIRED);
+        payment.setPaymentDate(LocalDateTime.now());
+
+        order.setStatus(PAID_OUT_OF_STOCK);
+        orderRepository.save(order);
+        return mapToPaymentResponse(paymentRepository.save(payment));
+    }
+
     private PaymentResponseDto mapToPaymentResponse(Payment payment) {
         PaymentResponseDto res = new PaymentResponseDto();
         res.setId(payment.getId());
@@ -1,6 +1,8 @@
 package com.fashionapp.resale_backend.payment;
 
 import com.fashionapp.resale_backend.common.utils.VNPayUtil;
+import com.fashionapp.resale_backend.payment.dto.PaymentResponseDto;
+import com.fashionapp.resale_backend.product.InsufficientStockException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -87,12 +89,23 @@ public class VNPayCallbackController {
         if (calculatedHash.equals(vnp_SecureHash)) {
             if ("00".equals(responseCode)) {
                 log.info("VNPay Payment Success for Order ID: {}", orderId);
-                paymentService.processPayment(
-                        orderId,
-                        "VNPAY",
-                        Double.parseDouble(amountStr),
-                        responseCode
-                );
+                PaymentResponseDto payment;
+                try {
+                    payment = paymentService.processPayment(
+                            orderId,
+                            "VNPAY",
+                            Double.parseDouble(amountStr),
+                            responseCode
+                    );
+                } catch (InsufficientStockException e) {
+                    // Paid after the hold expired and the items sold out in the meantime: VNPay has the money,
+                    // so record it for a refund (the payment transaction itself rolled back)
+                    log.warn("Late VNPay payment for Order ID: {} but stock is gone: {}", orderId, e.getShortfalls());
+                    payment = paymentService.recordOutOfStockPayment(orderId, "VNPAY", Double.parseDouble(amountStr) / 100);
+                }
+                if (PaymentService.REFUND_REQUIRED.equals(payment.getStatus())) {
+                    return redirect(frontendUrl + "/payment-failed?orderId=" + orderId + "&reason=out_of_stock");
+                }
                 return redirect(frontendUrl + "/payment-success?orderId=" + orderId);
             } else {
                 log.warn("VNPay Payment Failed with code: {} for Order ID: {}", responseCode, orderId);
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -31,6 +32,10 @@ public class VNPayService {
     @Value("${vnpay.return_url}")
     private String returnUrl;
 
+    // Stock for the order is held slightly longer than this (see StockReservationService)
+    @Value("${app.reservations.payment-ttl:PT15M}")
+    private Duration paymentTtl;
+
     public String createPaymentUrl(Order order, String ipAddress) {
         log.info("Generating VNPay URL for Order ID: {}", order.getId());
 
@@ -40,7 +45,7 @@ public class VNPayService {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
 
         String vnp_CreateDate = now.format(formatter);
-        String vnp_ExpireDate = now.plusMinutes(15).format(formatter);
+        String vnp_ExpireDate = now.plus(paymentTtl).format(formatter);
 
         // 2. Prepare Parameters
         Map<String, String> vnp_Params = new TreeMap<>();
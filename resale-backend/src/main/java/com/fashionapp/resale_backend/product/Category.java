@@ -8,6 +8,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "categories")
+@EntityListeners(CategoryChangeListener.class)
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
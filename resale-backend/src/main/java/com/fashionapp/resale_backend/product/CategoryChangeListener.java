@@ -0,0 +1,26 @@
+package com.fashionapp.resale_backend.product;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener (instantiated by Spring) that turns category writes into a {@link CategoryChangedEvent},
+ * so every write path — including the seeders — refreshes the category snapshot.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCategoryWrite(Category category) {
+        eventPublisher.publishEvent(new CategoryChangedEvent());
+    }
+}
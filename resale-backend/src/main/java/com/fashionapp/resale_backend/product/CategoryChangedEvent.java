@@ -0,0 +1,6 @@
+package com.fashionapp.resale_backend.product;
+
+/**
+ * Published whenever a category is inserted, updated or removed.
+ */
+public record CategoryChangedEvent() {}
@@ -1,11 +1,16 @@
 package com.fashionapp.resale_backend.product;
 
 import com.fashionapp.resale_backend.product.dto.CategoryResponseDto;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 @RestController
@@ -15,7 +20,20 @@ public class CategoryController {
     private final CategoryService categoryService;
 
     @GetMapping
-    public ResponseEntity<List<CategoryResponseDto>> getCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategoryTree());
+    public ResponseEntity<List<CategoryResponseDto>> getCategories(WebRequest request, HttpServletResponse response,
+                                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        // Tag and body come from the same snapshot. The tag hashes the content, so every instance serving the same
+        // tree agrees on it; build times differ per instance and are not sent as Last-Modified for the same reason
+        CategorySnapshot snapshot = categoryService.getSnapshot();
+        MediaType type = ResponseFormats.negotiate(accept, ResponseFormats.JACKSON);
+        String eTag = ResponseFormats.eTag("\"c" + snapshot.getContentHash() + "\"", type);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(type)
+                .eTag(eTag)
+                .body(snapshot.getTree());
     }
 }
\ No newline at end of file
@@ -1,10 +1,20 @@
 package com.fashionapp.resale_backend.product;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
 import java.util.Optional;
 import java.util.List;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findByName(String name);
     List<Category> findByParentCategoryIsNull();
-}
\ No newline at end of file
+
+    @Query("SELECT new com.fashionapp.resale_backend.product.CategoryRow(c.id, c.name, parent.id) " +
+            "FROM Category c LEFT JOIN c.parentCategory parent")
+    List<CategoryRow> findAllRows();
+
+    // Each row: [categoryId, activeProductCount]
+    @Query("SELECT p.category.id, COUNT(p) FROM Product p WHERE p.status = 'ACTIVE' AND p.category IS NOT NULL GROUP BY p.category.id")
+    List<Object[]> countActiveProductsByCategory();
+}
@@ -0,0 +1,6 @@
+package com.fashionapp.resale_backend.product;
+
+/**
+ * Scalar view of a category row, used to build the {@link CategorySnapshot} in one query.
+ */
+public record CategoryRow(Long id, String name, Long parentId) {}
@@ -4,37 +4,18 @@ import com.fashionapp.resale_backend.product.dto.CategoryResponseDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CategoryService {
-    private final CategoryRepository categoryRepository;
+    private final CategorySnapshotService categorySnapshotService;
 
-    public List<CategoryResponseDto> getAllCategoryTree() {
-        // Fetch only root categories (those without a parent)
-        List<Category> rootCategories = categoryRepository.findByParentCategoryIsNull();
-
-        return rootCategories.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CategorySnapshot getSnapshot() {
+        return categorySnapshotService.current();
     }
 
-    private CategoryResponseDto mapToResponse(Category category) {
-        CategoryResponseDto dto = new CategoryResponseDto();
-        dto.setId(category.getId());
-        dto.setName(category.getName());
-
-        if (category.getParentCategory() != null) {
-            dto.setParentId(category.getParentCategory().getId());
-        }
-
-        // Recursively map subcategories
-        if (category.getSubCategories() != null) {
-            dto.setSubCategories(category.getSubCategories().stream()
-                    .map(this::mapToResponse)
-                    .collect(Collectors.toList()));
-        }
-        return dto;
+    public List<CategoryResponseDto> getAllCategoryTree() {
+        // Served from the immutable in-memory snapshot: no category queries per request
+        return categorySnapshotService.current().getTree();
     }
-}
\ No newline at end of file
+}
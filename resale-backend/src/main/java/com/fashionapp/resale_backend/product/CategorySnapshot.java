@@ -0,0 +1,158 @@
+package com.fashionapp.resale_backend.product;
+
+import com.fashionapp.resale_backend.product.dto.CategoryResponseDto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, versioned view of the whole category tree.
+ * Built from two flat queries; every node carries its precomputed subtree ids and
+ * the number of ACTIVE products in that subtree, so readers never walk the tree or hit the database.
+ */
+public final class CategorySnapshot {
+
+    public record Node(Long id, String name, Long parentId, List<Long> childIds,
+                       Set<Long> subtreeIds, long activeProductCount) {}
+
+    private final long version;
+    private final Instant builtAt;
+    private final Map<Long, Node> nodes;
+    private final List<CategoryResponseDto> tree;
+    private final String contentHash;
+
+    private CategorySnapshot(long version, Instant builtAt, Map<Long, Node> nodes, List<CategoryResponseDto> tree) {
+        this.version = version;
+        this.builtAt = builtAt;
+        this.nodes = nodes;
+        this.tree = tree;
+        this.contentHash = hash(tree);
+    }
+
+    public static CategorySnapshot empty() {
+        return new CategorySnapshot(0, Instant.EPOCH, Map.of(), List.of());
+    }
+
+    public static CategorySnapshot build(long version, List<CategoryRow> rows, Map<Long, Long> directCounts) {
+        Map<Long, List<Long>> children = new HashMap<>();
+        List<Long> rootIds = new ArrayList<>();
+        Map<Long, CategoryRow> rowsById = new HashMap<>();
+        for (CategoryRow row : rows) {
+            rowsById.put(row.id(), row);
+        }
+        for (CategoryRow row : rows) {
+            if (row.parentId() == null || !rowsById.containsKey(row.parentId())) {
+                rootIds.add(row.id());
+            } else {
+                children.computeIfAbsent(row.parentId(), k -> new ArrayList<>()).add(row.id());
+            }
+        }
+        children.values().forEach(Collections::sort);
+        Collections.sort(rootIds);
+
+        Map<Long, Node> nodes = new HashMap<>();
+        List<CategoryResponseDto> tree = new ArrayList<>();
+        for (Long rootId : rootIds) {
+            tree.add(buildNode(rootId, rowsById, children, directCounts, nodes));
+        }
+        return new CategorySnapshot(version, Instant.now(), Map.copyOf(nodes), List.copyOf(tree));
+    }
+
+    // Post-order walk: children are finished before their parent aggregates ids and counts
+    private static CategoryResponseDto buildNode(Long id, Map<Long, CategoryRow> rowsById, Map<Long, List<Long>> children,
+                                                 Map<Long, Long> directCounts, Map<Long, Node> nodes) {
+        CategoryRow row = rowsById.get(id);
+        List<Long> childIds = children.getOrDefault(id, List.of());
+
+        Set<Long> subtree = new LinkedHashSet<>();
+        subtree.add(id);
+        long count = directCounts.getOrDefault(id, 0L);
+        List<CategoryResponseDto> childDtos = new ArrayList<>();
+
+        for (Long childId : childIds) {
+            childDtos.add(buildNode(childId, rowsById, children, directCounts, nodes));
+            Node child = nodes.get(childId);
+            subtree.addAll(child.subtreeIds());
+            count += child.activeProductCount();
+        }
+
+        nodes.put(id, new Node(id, row.name(), row.parentId(), List.copyOf(childIds),
+                Collections.unmodifiableSet(subtree), count));
+
+        CategoryResponseDto dto = new CategoryResponseDto();
+        dto.setId(id);
+        dto.setName(row.name());
+        dto.setParentId(row.parentId());
+        dto.setProductCount(count);
+        dto.setSubCategories(List.copyOf(childDtos));
+        return dto;
+    }
+
+    // Walks the tree in its (sorted) order, so every instance that built the same tree gets the same hash
+    private static String hash(List<CategoryResponseDto> tree) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, tree);
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, List<CategoryResponseDto> dtos) {
+        for (CategoryResponseDto dto : dtos) {
+            String line = dto.getId() + "\0" + dto.getName() + "\0" + dto.getParentId() + "\0"
+                    + dto.getProductCount() + "\0" + dto.getSubCategories().size() + "\n";
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+            update(digest, dto.getSubCategories());
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    /**
+     * Hex digest of everything the tree shows. Unlike the version and build time, it is the same on every instance
+     * holding the same tree, so it can serve as the HTTP entity tag.
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public List<CategoryResponseDto> getTree() {
+        return tree;
+    }
+
+    public Collection<Node> getNodes() {
+        return nodes.values();
+    }
+
+    public Node getNode(Long categoryId) {
+        return nodes.get(categoryId);
+    }
+
+    /**
+     * The category itself plus all of its descendants. Unknown ids resolve to just themselves,
+     * matching the previous recursive lookup.
+     */
+    public Set<Long> getSubtreeIds(Long categoryId) {
+        Node node = nodes.get(categoryId);
+        return node != null ? node.subtreeIds() : Set.of(categoryId);
+    }
+}
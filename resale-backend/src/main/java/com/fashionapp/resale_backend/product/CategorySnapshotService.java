@@ -0,0 +1,80 @@
+package com.fashionapp.resale_backend.product;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the current {@link CategorySnapshot}. Rebuilds happen off to the side and are published
+ * with a single volatile write, so readers always see one complete, consistent tree.
+ * Category writes rebuild right away; product writes (every checkout among them) only mark the counts stale,
+ * and a scheduled refresh rebuilds at most once per {@code app.categories.count-refresh}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CategorySnapshotService {
+
+    private final CategoryRepository categoryRepository;
+
+    private final AtomicLong versions = new AtomicLong();
+    private volatile CategorySnapshot current = CategorySnapshot.empty();
+    private volatile boolean countsStale;
+
+    public CategorySnapshot current() {
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    // Category writes change the tree; product writes can change the active counts
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        countsStale = true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.categories.count-refresh:PT5S}")
+    public void refreshCounts() {
+        if (!countsStale) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Keep the flag set so the next run retries; readers keep the previous snapshot
+            countsStale = true;
+            log.error("Category snapshot refresh failed", e);
+        }
+    }
+
+    public synchronized void rebuild() {
+        // Cleared before reading, so a product write that lands during the rebuild marks it stale again
+        countsStale = false;
+        List<CategoryRow> rows = categoryRepository.findAllRows();
+        Map<Long, Long> directCounts = new HashMap<>();
+        for (Object[] row : categoryRepository.countActiveProductsByCategory()) {
+            directCounts.put((Long) row[0], (Long) row[1]);
+        }
+
+        CategorySnapshot snapshot = CategorySnapshot.build(versions.incrementAndGet(), rows, directCounts);
+        current = snapshot;
+        log.debug("Category snapshot v{} built with {} categories", snapshot.getVersion(), rows.size());
+    }
+}
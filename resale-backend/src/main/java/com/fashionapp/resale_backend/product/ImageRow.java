@@ -0,0 +1,3 @@
+package com.fashionapp.resale_backend.product;
+
+public record ImageRow(Long productId, Long id, String url, String gcsUri, boolean mainImage) {}
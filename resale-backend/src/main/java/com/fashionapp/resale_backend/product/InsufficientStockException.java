@@ -0,0 +1,28 @@
+package com.fashionapp.resale_backend.product;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Thrown when one or more variants do not have enough stock. Lists every short line, not just the first,
+ * so the client can fix the whole cart in one go. The problem-detail body carries them as "shortfalls".
+ */
+public class InsufficientStockException extends ResponseStatusException {
+
+    private final List<StockShortfall> shortfalls;
+
+    public InsufficientStockException(List<StockShortfall> shortfalls) {
+        super(HttpStatus.CONFLICT, "Insufficient stock for: " + shortfalls.stream()
+                .map(s -> s.productName() + " (requested " + s.requested() + ", available " + s.available() + ")")
+                .collect(Collectors.joining(", ")));
+        this.shortfalls = List.copyOf(shortfalls);
+        getBody().setProperty("shortfalls", this.shortfalls);
+    }
+
+    public List<StockShortfall> getShortfalls() {
+        return shortfalls;
+    }
+}
@@ -0,0 +1,17 @@
+package com.fashionapp.resale_backend.product;
+
+/**
+ * The columns of a {@link ProductListing} that a storefront card shows, read with a constructor projection.
+ * {@code sizes} is the listing's comma-separated list of in-stock sizes.
+ */
+public record ListingCardRow(
+        Long id,
+        String name,
+        String brand,
+        String condition,
+        Double basePrice,
+        String mainImageUrl,
+        String sellerShopName,
+        String sizes,
+        int totalStock
+) {}
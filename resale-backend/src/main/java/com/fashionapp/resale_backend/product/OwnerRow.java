@@ -0,0 +1,6 @@
+package com.fashionapp.resale_backend.product;
+
+/**
+ * Which product and seller a variant (or product) belongs to, for ownership checks without loading entities.
+ */
+public record OwnerRow(Long id, Long productId, Long sellerId) {}
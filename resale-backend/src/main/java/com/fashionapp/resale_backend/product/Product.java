@@ -46,5 +46,13 @@ public class Product {
 
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Bumped by ProductVersionService on every change a buyer can see; drives ETag / Last-Modified.
+    // Only written by its UPDATE statements, never by entity flushes, so a stale instance cannot roll it back
+    @Column(columnDefinition = "bigint not null default 0", updatable = false)
+    private long version;
+
+    @Column(updatable = false)
+    private LocalDateTime updatedAt;
+
     private String status = "ACTIVE";
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.fashionapp.resale_backend.product;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published by every write path that changes what a buyer sees for a listing
+ * (fields, status, variants/stock, images). Derived read structures subscribe to it.
+ * {@code stockOnly} marks writes that changed nothing but variant stock (checkouts, released holds, flash-sale
+ * flushes): the products and listing rows of those are brought up to date after the writing transaction commits,
+ * so a busy product's rows are not locked for the length of every checkout.
+ */
+public record ProductChangedEvent(Set<Long> productIds, boolean stockOnly) {
+
+    public static ProductChangedEvent of(Long productId) {
+        return new ProductChangedEvent(Set.of(productId), false);
+    }
+
+    public static ProductChangedEvent of(Collection<Long> productIds) {
+        return new ProductChangedEvent(Set.copyOf(productIds), false);
+    }
+
+    public static ProductChangedEvent stock(Collection<Long> productIds) {
+        return new ProductChangedEvent(Set.copyOf(productIds), true);
+    }
+}
@@ -1,27 +1,46 @@
 package com.fashionapp.resale_backend.product;
 
+import com.fashionapp.resale_backend.analytics.ListingAnalyticsService;
 import com.fashionapp.resale_backend.common.ai.VirtualTryOnService;
-import com.fashionapp.resale_backend.common.storage.FileUploadResult;
-import com.fashionapp.resale_backend.common.storage.GcsService;
+import com.fashionapp.resale_backend.product.dto.BulkInventoryResultDto;
+import com.fashionapp.resale_backend.product.dto.BulkInventoryUpdateDto;
+import com.fashionapp.resale_backend.product.dto.ProductBatchRequestDto;
+import com.fashionapp.resale_backend.product.dto.ProductCardDto;
+import com.fashionapp.resale_backend.product.dto.CursorPageDto;
+import com.fashionapp.resale_backend.product.dto.FacetedProductsDto;
+import com.fashionapp.resale_backend.product.facet.Facet;
+import com.fashionapp.resale_backend.product.facet.ProductFacetService;
 import com.fashionapp.resale_backend.product.dto.ProductCreateDto;
+import com.fashionapp.resale_backend.product.dto.ProductImportResultDto;
+import com.fashionapp.resale_backend.product.importer.ProductImportFormat;
+import com.fashionapp.resale_backend.product.importer.ProductImportService;
+import com.fashionapp.resale_backend.product.suggest.ProductSuggestService;
 import com.fashionapp.resale_backend.product.dto.ProductResponseDto;
+import com.fashionapp.resale_backend.product.dto.SuggestionDto;
 import com.fashionapp.resale_backend.user.User;
 import com.fashionapp.resale_backend.user.UserRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 
 
 import java.io.IOException;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -30,40 +49,40 @@ import java.util.stream.Collectors;
 public class ProductController {
 
     private final ProductService productService;
-    private final ProductRepository productRepository;
     private final UserRepository userRepository;
-    private final ProductImageRepository productImageRepository;
-    private final GcsService gcsService;
     private final VirtualTryOnService virtualTryOnService;
+    private final ProductFacetService productFacetService;
+    private final ProductImportService productImportService;
+    private final ProductInventoryService productInventoryService;
+    private final ProductSuggestService productSuggestService;
+    private final ListingAnalyticsService listingAnalyticsService;
+    private final StorefrontPageCache storefrontPageCache;
 
     @PostMapping
     public ResponseEntity<ProductResponseDto> createProduct(@RequestBody ProductCreateDto dto) {
         return ResponseEntity.ok(productService.createProduct(dto));
     }
 
+    /**
+     * Bulk import: the request body is an NDJSON or CSV stream (see ProductImportService for the CSV layout).
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ProductImportResultDto> importProducts(HttpServletRequest request) throws IOException {
+        ProductImportFormat format = ProductImportFormat.fromContentType(request.getContentType());
+        return ResponseEntity.ok(productImportService.importProducts(request.getInputStream(), format));
+    }
+
+    @PutMapping("/inventory")
+    public ResponseEntity<BulkInventoryResultDto> bulkUpdateInventory(@RequestBody BulkInventoryUpdateDto dto) {
+        return ResponseEntity.ok(productInventoryService.applyBulkUpdate(dto));
+    }
+
     @PostMapping("/{productId}/upload-images")
-    @Transactional
     public ResponseEntity<ProductResponseDto> uploadProductImages(
             @PathVariable Long productId,
             @RequestParam("files") MultipartFile[] files) throws IOException {
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-
-        for (MultipartFile file : files) {
-            // 1. Upload and receive the FileUploadResult
-            FileUploadResult result = gcsService.uploadFile(file, "products");
-
-            ProductImage image = new ProductImage();
-            image.setUrl(result.publicUrl()); // Public HTTPS link
-            image.setGcsUri(result.gcsUri()); // Internal gs:// link
-            image.setProduct(product);
-
-            productImageRepository.save(image);
-        }
-
-        // Refresh product to include new images in the response
-        return ResponseEntity.ok(productService.mapToResponse(product));
+        return ResponseEntity.ok(productService.uploadProductImages(productId, files));
     }
 
     @DeleteMapping("/{productId}/images/{imageId}")
@@ -79,10 +98,14 @@ public class ProductController {
     @PostMapping("/try-on")
     public ResponseEntity<Map<String, String>> tryOn(
             @RequestParam String personUri,
-            @RequestParam String productUri) throws IOException {
+            @RequestParam String productUri,
+            @RequestParam(required = false) Long productId) throws IOException {
 
         // This now returns a "data:image/png;base64,..." string
         String imageUrl = virtualTryOnService.executeTryOn(personUri, productUri);
+        if (productId != null) {
+            listingAnalyticsService.recordTryOn(productId);
+        }
 
         return ResponseEntity.ok(Map.of("imageUrl", imageUrl));
     }
@@ -110,19 +133,113 @@ public class ProductController {
 
 
     @GetMapping
-    public ResponseEntity<Page<ProductResponseDto>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
-            @PageableDefault(size = 8, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+            @PageableDefault(size = 8, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        // The page cache holds JSON; clients preferring CBOR, Smile or protobuf go through regular content negotiation
+        if (!MediaType.APPLICATION_JSON.equals(ResponseFormats.negotiate(accept, ResponseFormats.PRODUCT))) {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .body(productService.getStorefrontProducts(search, categoryId, minPrice, maxPrice, pageable));
+        }
 
-        return ResponseEntity.ok(productService.getStorefrontProducts(search, categoryId, minPrice, maxPrice, pageable));
+        // Same JSON as a Page<ProductCardDto>, served from pre-compressed bytes
+        byte[] gzipped = storefrontPageCache.getGzipped(search, categoryId, minPrice, maxPrice, pageable);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (ResponseFormats.acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzipped);
+        }
+        return response.body(StorefrontPageCache.gunzip(gzipped));
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<ProductResponseDto> getProduct(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<ProductCardDto>> scrollProducts(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "8") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+
+        int pageSize = Math.max(1, Math.min(size, 100));
+        return ResponseEntity.ok(productService.scrollStorefrontProducts(
+                search, categoryId, minPrice, maxPrice, ScrollSort.fromParam(sort), cursor, pageSize, withTotal));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(productSuggestService.suggest(q, limit));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<FacetedProductsDto> getFacetedProducts(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Set<String> sizes,
+            @RequestParam(required = false) Set<String> colors,
+            @RequestParam(required = false) Set<String> brands,
+            @RequestParam(required = false) Set<String> conditions,
+            @RequestParam(required = false) Set<String> priceBuckets,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "8") int pageSize) {
+
+        Map<Facet, Set<String>> selections = new EnumMap<>(Facet.class);
+        selections.put(Facet.SIZE, sizes);
+        selections.put(Facet.COLOR, colors);
+        selections.put(Facet.BRAND, brands);
+        selections.put(Facet.CONDITION, conditions);
+        selections.put(Facet.PRICE, priceBuckets);
+        selections.put(Facet.STOCK, Boolean.TRUE.equals(inStock) ? Set.of("true") : null);
+
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(pageSize, 100)));
+        return ResponseEntity.ok(productFacetService.search(categoryId, selections, pageable));
     }
 
-}
\ No newline at end of file
+    // Takes precedence over the storefront listing whenever ?ids= is present
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<ProductResponseDto>> getProductsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductResponseDto>> getProductsBatch(@RequestBody ProductBatchRequestDto dto) {
+        return ResponseEntity.ok(productService.getProductsByIds(dto.getIds()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ProductResponseDto> getProduct(@PathVariable Long id, WebRequest request,
+                                                         HttpServletRequest servletRequest,
+                                                         HttpServletResponse servletResponse) {
+        // Revalidation costs one indexed lookup; the full DTO is only assembled when the client's copy is stale
+        ProductVersion version = productService.getProductVersion(id);
+
+        // In-memory only; flushed to the analytics table in the background
+        listingAnalyticsService.recordView(id, servletRequest);
+
+        // Each encoding is its own representation: the tag names it, and 304s vary on Accept too
+        MediaType type = ResponseFormats.negotiate(servletRequest.getHeader(HttpHeaders.ACCEPT), ResponseFormats.PRODUCT);
+        String eTag = ResponseFormats.eTag(version.eTag(), type);
+        servletResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (request.checkNotModified(eTag, version.lastModifiedMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(type)
+                .eTag(eTag)
+                .lastModified(version.lastModifiedMillis())
+                .body(productService.getProductById(id));
+    }
+}
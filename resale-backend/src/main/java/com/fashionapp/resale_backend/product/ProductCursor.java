@@ -0,0 +1,38 @@
+package com.fashionapp.resale_backend.product;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position of a row in a keyset-paginated listing: the sort key value plus the id.
+ * Clients only ever see the opaque base64url form produced by {@link #encode()}.
+ */
+public record ProductCursor(ScrollSort sort, LocalDateTime createdAt, Double basePrice, Long id) {
+
+    public String encode() {
+        String key = sort == ScrollSort.NEWEST ? createdAt.toString() : String.valueOf(basePrice);
+        String raw = sort.name() + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token, ScrollSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            ScrollSort sort = ScrollSort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort");
+            }
+            Long id = Long.parseLong(parts[2]);
+            return sort == ScrollSort.NEWEST
+                    ? new ProductCursor(sort, LocalDateTime.parse(parts[1]), null, id)
+                    : new ProductCursor(sort, null, Double.parseDouble(parts[1]), id);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
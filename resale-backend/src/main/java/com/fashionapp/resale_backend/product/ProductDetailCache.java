@@ -0,0 +1,147 @@
+package com.fashionapp.resale_backend.product;
+
+import com.fashionapp.resale_backend.product.dto.ProductImageDto;
+import com.fashionapp.resale_backend.product.dto.ProductResponseDto;
+import com.fashionapp.resale_backend.product.dto.ProductVariantDto;
+import com.fashionapp.resale_backend.user.ShopRenamedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded cache of assembled product detail DTOs, weighed by their approximate size in bytes.
+ * A miss is loaded once per key: concurrent requests for the same product wait for that single load
+ * instead of each hitting the database. Entries are dropped after the writing transaction commits,
+ * so the next read sees the committed state. Bulk loads run outside Caffeine's per-key locking, so they re-check
+ * for invalidations that landed while they were reading and drop what they stored for those ids.
+ * Cached DTOs are shared between requests and must not be mutated by callers.
+ */
+@Component
+public class ProductDetailCache {
+
+    private static final int INVALIDATION_STRIPES = 1024;
+
+    private final ProductResponseAssembler responseAssembler;
+    private final ProductRepository productRepository;
+    private final Cache<Long, ProductResponseDto> cache;
+    // Bumped for every invalidated id, striped by id so memory stays fixed; a stripe collision only costs a reload
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    public ProductDetailCache(ProductResponseAssembler responseAssembler,
+                              ProductRepository productRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.cache.product-detail.max-weight-bytes:67108864}") long maxWeightBytes,
+                              @Value("${app.cache.product-detail.expire-after-write:PT30M}") Duration expireAfterWrite) {
+        this.responseAssembler = responseAssembler;
+        this.productRepository = productRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Long id, ProductResponseDto dto) -> estimateBytes(dto))
+                // Safety net only; correctness comes from the explicit invalidation below
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "productDetail");
+    }
+
+    public Optional<ProductResponseDto> get(Long productId) {
+        // Caffeine computes atomically per key: one loader runs, other callers for that id block on it
+        return Optional.ofNullable(cache.get(productId, this::load));
+    }
+
+    /**
+     * Cached DTOs for the given ids; all misses are assembled together in one bulk load.
+     * Ids that do not exist are absent from the result.
+     */
+    public Map<Long, ProductResponseDto> getAll(Collection<Long> productIds) {
+        Map<Long, ProductResponseDto> found = new HashMap<>(cache.getAllPresent(productIds));
+        List<Long> misses = productIds.stream().filter(id -> !found.containsKey(id)).distinct().toList();
+        if (misses.isEmpty()) {
+            return found;
+        }
+
+        // Stamps are read before the database and checked after storing: a writer bumps them after its commit and
+        // before it invalidates, so a write these reads missed either shows up below or removes the entry itself
+        long[] stamps = new long[misses.size()];
+        for (int i = 0; i < stamps.length; i++) {
+            stamps[i] = invalidations.get(stripe(misses.get(i)));
+        }
+        Map<Long, ProductResponseDto> loaded = loadAll(misses);
+        cache.putAll(loaded);
+        for (int i = 0; i < stamps.length; i++) {
+            if (invalidations.get(stripe(misses.get(i))) != stamps[i]) {
+                cache.invalidate(misses.get(i));
+            }
+        }
+        found.putAll(loaded);
+        return found;
+    }
+
+    public void invalidate(Iterable<Long> productIds) {
+        for (Long id : productIds) {
+            invalidations.incrementAndGet(stripe(id));
+        }
+        cache.invalidateAll(productIds);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.productIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShopRenamed(ShopRenamedEvent event) {
+        invalidate(productRepository.findIdsBySellerId(event.sellerId()));
+    }
+
+    private ProductResponseDto load(Long productId) {
+        List<ProductResponseDto> loaded = responseAssembler.assemble(List.of(productId));
+        return loaded.isEmpty() ? null : loaded.get(0);
+    }
+
+    private Map<Long, ProductResponseDto> loadAll(Collection<Long> productIds) {
+        Map<Long, ProductResponseDto> loaded = new HashMap<>();
+        for (ProductResponseDto dto : responseAssembler.assemble(List.copyOf(productIds))) {
+            loaded.put(dto.getId(), dto);
+        }
+        return loaded;
+    }
+
+    private static int stripe(Long productId) {
+        return Long.hashCode(productId) & (INVALIDATION_STRIPES - 1);
+    }
+
+    // Rough heap footprint: object headers plus 2 bytes per char; good enough to bound memory, not exact
+    private static int estimateBytes(ProductResponseDto dto) {
+        int bytes = 200 + chars(dto.getName()) + chars(dto.getDescription()) + chars(dto.getBrand())
+                + chars(dto.getCondition()) + chars(dto.getCategoryName()) + chars(dto.getSellerShopName())
+                + chars(dto.getStatus());
+        if (dto.getVariants() != null) {
+            for (ProductVariantDto v : dto.getVariants()) {
+                bytes += 80 + chars(v.getSize()) + chars(v.getColor());
+            }
+        }
+        if (dto.getImages() != null) {
+            for (ProductImageDto img : dto.getImages()) {
+                bytes += 64 + chars(img.getUrl()) + chars(img.getGcsUri());
+            }
+        }
+        return bytes;
+    }
+
+    private static int chars(String s) {
+        return s == null ? 0 : 40 + 2 * s.length();
+    }
+}
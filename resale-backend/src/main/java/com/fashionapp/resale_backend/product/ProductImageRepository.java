@@ -1,9 +1,17 @@
 package com.fashionapp.resale_backend.product;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductImageRepository extends JpaRepository<ProductImage, Long> {
     // Allows you to fetch the full photo gallery for a listing
     List<ProductImage> findByProductId(Long productId);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.fashionapp.resale_backend.product.ImageRow(i.product.id, i.id, i.url, i.gcsUri, i.isMainImage) " +
+            "FROM ProductImage i WHERE i.product.id IN :productIds ORDER BY i.id")
+    List<ImageRow> findRowsByProductIdIn(@Param("productIds") Collection<Long> productIds);
+}
@@ -0,0 +1,144 @@
+package com.fashionapp.resale_backend.product;
+
+import com.fashionapp.resale_backend.product.dto.BulkInventoryErrorDto;
+import com.fashionapp.resale_backend.product.dto.BulkInventoryResultDto;
+import com.fashionapp.resale_backend.product.dto.BulkInventoryUpdateDto;
+import com.fashionapp.resale_backend.product.flashsale.FlashSaleService;
+import com.fashionapp.resale_backend.user.User;
+import com.fashionapp.resale_backend.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bulk stock/price sync for sellers (e.g. from a POS). Entries are merged by id in a hash map,
+ * ownership is checked with one projection query per chunk, the writes go out as JDBC batches,
+ * and a single ProductChangedEvent at the end refreshes the listing rows, caches and indexes once.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductInventoryService {
+
+    private static final int MAX_ENTRIES = 5000;
+    private static final int LOOKUP_CHUNK = 1000;
+    private static final int BATCH_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository variantRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FlashSaleService flashSaleService;
+
+    @Transactional
+    public BulkInventoryResultDto applyBulkUpdate(BulkInventoryUpdateDto dto) {
+        List<BulkInventoryUpdateDto.StockUpdate> stockEntries = dto.getStock() != null ? dto.getStock() : List.of();
+        List<BulkInventoryUpdateDto.PriceUpdate> priceEntries = dto.getPrices() != null ? dto.getPrices() : List.of();
+        if (stockEntries.size() + priceEntries.size() > MAX_ENTRIES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_ENTRIES + " entries per request");
+        }
+
+        Long sellerId = getAuthenticatedUser().getId();
+        List<BulkInventoryErrorDto> errors = new ArrayList<>();
+
+        // 1. Merge: one entry per id, last one wins
+        Map<Long, Integer> stockByVariant = new LinkedHashMap<>();
+        for (BulkInventoryUpdateDto.StockUpdate entry : stockEntries) {
+            if (entry.getVariantId() == null || entry.getStockQuantity() == null || entry.getStockQuantity() < 0) {
+                errors.add(new BulkInventoryErrorDto("stock", entry.getVariantId(), "variantId and a stockQuantity >= 0 are required"));
+            } else if (flashSaleService.isFlashSale(entry.getVariantId())) {
+                // The sale's counters own this stock until it ends
+                errors.add(new BulkInventoryErrorDto("stock", entry.getVariantId(), "In a flash sale; end it before changing stock"));
+            } else {
+                stockByVariant.put(entry.getVariantId(), entry.getStockQuantity());
+            }
+        }
+        Map<Long, Double> priceByProduct = new LinkedHashMap<>();
+        for (BulkInventoryUpdateDto.PriceUpdate entry : priceEntries) {
+            if (entry.getProductId() == null || entry.getBasePrice() == null || entry.getBasePrice() < 0) {
+                errors.add(new BulkInventoryErrorDto("price", entry.getProductId(), "productId and a basePrice >= 0 are required"));
+            } else {
+                priceByProduct.put(entry.getProductId(), entry.getBasePrice());
+            }
+        }
+
+        // 2. Ownership: drop anything that does not exist or belongs to another seller
+        Set<Long> touchedProducts = new HashSet<>();
+        Map<Long, OwnerRow> variantOwners = lookupOwners(stockByVariant.keySet(), variantRepository::findOwnersByIdIn);
+        keepOwned(stockByVariant, variantOwners, sellerId, "stock", errors, touchedProducts);
+        Map<Long, OwnerRow> productOwners = lookupOwners(priceByProduct.keySet(), productRepository::findOwnersByIdIn);
+        keepOwned(priceByProduct, productOwners, sellerId, "price", errors, touchedProducts);
+
+        // 3. Batched writes
+        List<Object[]> stockArgs = new ArrayList<>(stockByVariant.size());
+        stockByVariant.forEach((variantId, stock) -> stockArgs.add(new Object[]{stock, variantId}));
+        batchUpdate("UPDATE product_variants SET stock_quantity = ? WHERE id = ?", stockArgs, Types.INTEGER);
+
+        List<Object[]> priceArgs = new ArrayList<>(priceByProduct.size());
+        priceByProduct.forEach((productId, price) -> priceArgs.add(new Object[]{price, productId}));
+        batchUpdate("UPDATE products SET base_price = ? WHERE id = ?", priceArgs, Types.DOUBLE);
+
+        // 4. One refresh for everything that changed
+        if (!touchedProducts.isEmpty()) {
+            eventPublisher.publishEvent(ProductChangedEvent.of(touchedProducts));
+        }
+        return new BulkInventoryResultDto(stockByVariant.size(), priceByProduct.size(), errors);
+    }
+
+    private Map<Long, OwnerRow> lookupOwners(Set<Long> ids, Function<List<Long>, List<OwnerRow>> query) {
+        Map<Long, OwnerRow> owners = new HashMap<>();
+        List<Long> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += LOOKUP_CHUNK) {
+            for (OwnerRow row : query.apply(all.subList(from, Math.min(from + LOOKUP_CHUNK, all.size())))) {
+                owners.put(row.id(), row);
+            }
+        }
+        return owners;
+    }
+
+    private static <V> void keepOwned(Map<Long, V> updates, Map<Long, OwnerRow> owners, Long sellerId, String type,
+                                      List<BulkInventoryErrorDto> errors, Set<Long> touchedProducts) {
+        updates.entrySet().removeIf(entry -> {
+            OwnerRow owner = owners.get(entry.getKey());
+            if (owner == null) {
+                errors.add(new BulkInventoryErrorDto(type, entry.getKey(), "Not found"));
+                return true;
+            }
+            if (!owner.sellerId().equals(sellerId)) {
+                errors.add(new BulkInventoryErrorDto(type, entry.getKey(), "Unauthorized: You do not own this product."));
+                return true;
+            }
+            touchedProducts.add(owner.productId());
+            return false;
+        });
+    }
+
+    private void batchUpdate(String sql, List<Object[]> args, int valueType) {
+        int[] types = {valueType, Types.BIGINT};
+        for (int from = 0; from < args.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, args.subList(from, Math.min(from + BATCH_SIZE, args.size())), types);
+        }
+    }
+
+    private User getAuthenticatedUser() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Authenticated user not found"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.fashionapp.resale_backend.product;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized read model: one row per product with everything the storefront filters, sorts and
+ * shows on a card, so listing queries touch a single narrow table instead of joining
+ * products, categories, users, product_variants and product_images.
+ * Maintained by {@link ProductListingService}; never written directly.
+ */
+@Entity
+@Table(name = "product_listing", indexes = {
+        @Index(name = "idx_listing_status_created", columnList = "status, created_at, product_id"),
+        @Index(name = "idx_listing_status_price", columnList = "status, base_price, product_id"),
+        @Index(name = "idx_listing_status_trending", columnList = "status, trending_score, product_id"),
+        @Index(name = "idx_listing_category_status", columnList = "category_id, status"),
+        @Index(name = "idx_listing_seller", columnList = "seller_id")
+})
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductListing {
+    @Id
+    @Column(name = "product_id")
+    private Long id;
+
+    private String name;
+    private String brand;
+    private String condition;
+    private Double basePrice;
+    private String status;
+    private LocalDateTime createdAt;
+
+    private Long categoryId;
+    // e.g. "Women > Tops > T-Shirts"
+    private String categoryPath;
+
+    @Column(nullable = false)
+    private Long sellerId;
+    private String sellerShopName;
+
+    @Column(length = 1024)
+    private String mainImageUrl;
+
+    private int minStock;
+    private int maxStock;
+    private int totalStock;
+
+    // Written only by TrendingScoreService (log of the forward-decayed sales score); 0 = never sold
+    @Column(columnDefinition = "double precision not null default 0", insertable = false, updatable = false)
+    private double trendingScore;
+
+    // Comma-separated, only from variants that still have stock
+    @Column(length = 500)
+    private String sizes;
+    @Column(length = 500)
+    private String colors;
+}
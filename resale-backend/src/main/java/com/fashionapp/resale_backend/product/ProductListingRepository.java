@@ -0,0 +1,35 @@
+package com.fashionapp.resale_backend.product;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductListingRepository extends JpaRepository<ProductListing, Long>,
+        JpaSpecificationExecutor<ProductListing>, ProductListingRepositoryCustom {
+
+    @Modifying
+    @Query("UPDATE ProductListing l SET l.sellerShopName = :shopName WHERE l.sellerId = :sellerId")
+    int updateSellerShopName(@Param("sellerId") Long sellerId, @Param("shopName") String shopName);
+
+    @Modifying
+    @Query("UPDATE ProductListing l SET l.categoryPath = :path WHERE l.categoryId = :categoryId " +
+            "AND (l.categoryPath IS NULL OR l.categoryPath <> :path)")
+    int updateCategoryPath(@Param("categoryId") Long categoryId, @Param("path") String path);
+
+    @Modifying
+    @Query("DELETE FROM ProductListing l WHERE NOT EXISTS (SELECT 1 FROM Product p WHERE p.id = l.id)")
+    int deleteOrphans();
+
+    @Query("SELECT new com.fashionapp.resale_backend.product.ListingCardRow(" +
+            "l.id, l.name, l.brand, l.condition, l.basePrice, l.mainImageUrl, l.sellerShopName, l.sizes, l.totalStock) " +
+            "FROM ProductListing l WHERE l.id IN :ids")
+    List<ListingCardRow> findCardRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT l.id FROM ProductListing l WHERE l.categoryId = :categoryId")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+}
@@ -0,0 +1,27 @@
+package com.fashionapp.resale_backend.product;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ProductListingRepositoryCustom {
+
+    /**
+     * Same filtering, sorting and paging as findAll(spec, pageable), but selects only ids,
+     * so no entity is hydrated just to be thrown away.
+     */
+    Page<Long> findIds(Specification<ProductListing> spec, Pageable pageable);
+
+    /**
+     * Keyset page: up to {@code limit} rows strictly after {@code after} (null = from the start),
+     * in the given order. Each row comes back as its own cursor so the caller can continue from any of them.
+     */
+    List<ProductCursor> findCursorPage(Specification<ProductListing> spec, ScrollSort sort, ProductCursor after, int limit);
+
+    /**
+     * Counts matching rows but stops at {@code cap}, so the cost is bounded even for huge result sets.
+     */
+    long countUpTo(Specification<ProductListing> spec, int cap);
+}
@@ -0,0 +1,120 @@
+package com.fashionapp.resale_backend.product;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class ProductListingRepositoryImpl implements ProductListingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Long> findIds(Specification<ProductListing> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<ProductListing> root = query.from(ProductListing.class);
+        query.select(root.get("id")).where(spec.toPredicate(root, query, cb));
+
+        // Id is the final tie-breaker so pages stay stable when sort keys collide
+        List<Order> orders = new ArrayList<>(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        orders.add(cb.desc(root.get("id")));
+        query.orderBy(orders);
+
+        List<Long> ids = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        // The count is skipped when the page itself already tells us the total
+        return PageableExecutionUtils.getPage(ids, pageable, () -> count(spec));
+    }
+
+    private long count(Specification<ProductListing> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<ProductListing> root = countQuery.from(ProductListing.class);
+        countQuery.select(cb.count(root)).where(spec.toPredicate(root, countQuery, cb));
+        return entityManager.createQuery(countQuery).getSingleResult();
+    }
+
+    @Override
+    public List<ProductCursor> findCursorPage(Specification<ProductListing> spec, ScrollSort sort, ProductCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ProductListing> root = query.from(ProductListing.class);
+
+        Path<Long> id = root.get("id");
+        Path<LocalDateTime> createdAt = root.get("createdAt");
+        Path<Double> basePrice = root.get("basePrice");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(spec.toPredicate(root, query, cb));
+
+        // Row-value comparison "(key, id) > (cursorKey, cursorId)" spelled out so it works in JPQL
+        switch (sort) {
+            case NEWEST -> {
+                // Rows without a creation time have no position to resume from, like unpriced rows below
+                predicates.add(cb.isNotNull(createdAt));
+                query.orderBy(cb.desc(createdAt), cb.desc(id));
+                if (after != null) {
+                    predicates.add(cb.or(
+                            cb.lessThan(createdAt, after.createdAt()),
+                            cb.and(cb.equal(createdAt, after.createdAt()), cb.lessThan(id, after.id()))));
+                }
+            }
+            case PRICE_ASC -> {
+                predicates.add(cb.isNotNull(basePrice));
+                query.orderBy(cb.asc(basePrice), cb.asc(id));
+                if (after != null) {
+                    predicates.add(cb.or(
+                            cb.greaterThan(basePrice, after.basePrice()),
+                            cb.and(cb.equal(basePrice, after.basePrice()), cb.greaterThan(id, after.id()))));
+                }
+            }
+            case PRICE_DESC -> {
+                predicates.add(cb.isNotNull(basePrice));
+                query.orderBy(cb.desc(basePrice), cb.desc(id));
+                if (after != null) {
+                    predicates.add(cb.or(
+                            cb.lessThan(basePrice, after.basePrice()),
+                            cb.and(cb.equal(basePrice, after.basePrice()), cb.lessThan(id, after.id()))));
+                }
+            }
+        }
+
+        query.multiselect(id, createdAt, basePrice).where(predicates.toArray(Predicate[]::new));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(t -> new ProductCursor(sort, t.get(createdAt), t.get(basePrice), t.get(id)))
+                .toList();
+    }
+
+    @Override
+    public long countUpTo(Specification<ProductListing> spec, int cap) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<ProductListing> root = query.from(ProductListing.class);
+        query.select(root.get("id")).where(spec.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).setMaxResults(cap).getResultList().size();
+    }
+}
@@ -0,0 +1,228 @@
+package com.fashionapp.resale_backend.product;
+
+import com.fashionapp.resale_backend.user.ShopRenamedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps the {@link ProductListing} read model in step with the normalized tables.
+ * Product changes are applied synchronously inside the writing transaction, so a listing row
+ * commits (or rolls back) together with the product, its variants and its images. Stock-only changes are applied
+ * shortly after commit by {@link ProductStockRefresher}; ones a crash drops before then are repaired on startup.
+ * A refresh locks the product rows first and reads stock from the database after that, so two refreshes of one
+ * product (say, checkouts of two of its variants) run one after the other and the second sees the first's stock.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductListingService {
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+    private static final String PATH_SEPARATOR = " > ";
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository variantRepository;
+    private final ProductListingRepository listingRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @EventListener(condition = "!#event.stockOnly()")
+    @Transactional
+    public void onProductChanged(ProductChangedEvent event) {
+        refresh(event.productIds());
+    }
+
+    @EventListener
+    @Transactional
+    public void onShopRenamed(ShopRenamedEvent event) {
+        listingRepository.updateSellerShopName(event.sellerId(), event.shopName());
+    }
+
+    // Category events fire from inside a flush, so paths are re-derived once the category write has committed
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        Map<Long, CategoryRow> categories = new HashMap<>();
+        categoryRepository.findAllRows().forEach(row -> categories.put(row.id(), row));
+
+        Set<Long> affected = new HashSet<>();
+        for (Long categoryId : categories.keySet()) {
+            if (listingRepository.updateCategoryPath(categoryId, pathOf(categoryId, categories)) > 0) {
+                affected.addAll(listingRepository.findIdsByCategoryId(categoryId));
+            }
+        }
+        // A renamed category changes what those listings show (and how they are searched)
+        if (!affected.isEmpty()) {
+            log.debug("Category path changed on {} listings", affected.size());
+            eventPublisher.publishEvent(ProductChangedEvent.of(affected));
+        }
+    }
+
+    /**
+     * Seed data is written straight through the repositories, so the read model is reconciled
+     * with the products table once on startup, one batch per transaction.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        long started = System.currentTimeMillis();
+        Pageable page = PageRequest.of(0, BACKFILL_BATCH_SIZE, Sort.by("id"));
+        Slice<Long> slice;
+        int total = 0;
+        do {
+            slice = productRepository.findAllIds(page);
+            Set<Long> ids = new HashSet<>(slice.getContent());
+            transactionTemplate.executeWithoutResult(status -> refresh(ids));
+            total += ids.size();
+            page = slice.nextPageable();
+        } while (slice.hasNext());
+
+        Integer orphans = transactionTemplate.execute(status -> listingRepository.deleteOrphans());
+        log.info("Product listings reconciled: {} products, {} orphans removed in {} ms",
+                total, orphans, System.currentTimeMillis() - started);
+    }
+
+    void refresh(Set<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        productRepository.lockByIdIn(productIds);
+
+        // Read after the lock and past the persistence context, which may hold variants loaded before another
+        // transaction's checkout committed
+        Map<Long, List<VariantRow>> variants = new HashMap<>();
+        for (VariantRow v : variantRepository.findRowsByProductIdIn(productIds)) {
+            variants.computeIfAbsent(v.productId(), id -> new ArrayList<>()).add(v);
+        }
+
+        // Loaded up front so the merge below finds them in the persistence context instead of selecting one by one
+        Map<Long, ProductListing> before = new HashMap<>();
+        listingRepository.findAllById(productIds).forEach(listing -> before.put(listing.getId(), listing));
+
+        List<ProductListing> listings = new ArrayList<>();
+        Set<Long> missing = new HashSet<>(productIds);
+        Set<Long> cardsChanged = new HashSet<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            ProductListing listing = toListing(product, variants.getOrDefault(product.getId(), List.of()));
+            if (!sameCard(before.get(product.getId()), listing)) {
+                cardsChanged.add(product.getId());
+            }
+            listings.add(listing);
+            missing.remove(product.getId());
+        }
+        listingRepository.saveAll(listings);
+        if (!missing.isEmpty()) {
+            listingRepository.deleteAllByIdInBatch(missing);
+            missing.stream().filter(before::containsKey).forEach(cardsChanged::add);
+        }
+        if (!cardsChanged.isEmpty()) {
+            eventPublisher.publishEvent(new StorefrontChangedEvent(cardsChanged));
+        }
+    }
+
+    // Everything a storefront card shows or a storefront page filters and sorts on; stock counts only by sign
+    private static boolean sameCard(ProductListing before, ProductListing after) {
+        return before != null
+                && Objects.equals(before.getName(), after.getName())
+                && Objects.equals(before.getBrand(), after.getBrand())
+                && Objects.equals(before.getCondition(), after.getCondition())
+                && Objects.equals(before.getBasePrice(), after.getBasePrice())
+                && Objects.equals(before.getStatus(), after.getStatus())
+                && Objects.equals(before.getCreatedAt(), after.getCreatedAt())
+                && Objects.equals(before.getCategoryId(), after.getCategoryId())
+                && Objects.equals(before.getCategoryPath(), after.getCategoryPath())
+                && Objects.equals(before.getSellerShopName(), after.getSellerShopName())
+                && Objects.equals(before.getMainImageUrl(), after.getMainImageUrl())
+                && Objects.equals(before.getSizes(), after.getSizes())
+                && (before.getTotalStock() > 0) == (after.getTotalStock() > 0);
+    }
+
+    private ProductListing toListing(Product product, List<VariantRow> variants) {
+        ProductListing listing = new ProductListing();
+        listing.setId(product.getId());
+        listing.setName(product.getName());
+        listing.setBrand(product.getBrand());
+        listing.setCondition(product.getCondition());
+        listing.setBasePrice(product.getBasePrice());
+        listing.setStatus(product.getStatus());
+        listing.setCreatedAt(product.getCreatedAt());
+
+        if (product.getCategory() != null) {
+            listing.setCategoryId(product.getCategory().getId());
+            listing.setCategoryPath(pathOf(product.getCategory()));
+        }
+
+        listing.setSellerId(product.getSeller().getId());
+        listing.setSellerShopName(product.getSeller().getShopName());
+
+        // Flagged main image first, otherwise the oldest upload
+        product.getImages().stream()
+                .min(Comparator.comparing((ProductImage img) -> !img.isMainImage())
+                        .thenComparing(ProductImage::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .ifPresent(img -> listing.setMainImageUrl(img.getUrl()));
+
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        int total = 0;
+        Set<String> sizes = new TreeSet<>();
+        Set<String> colors = new TreeSet<>();
+        for (VariantRow variant : variants) {
+            int stock = variant.stockQuantity() != null ? variant.stockQuantity() : 0;
+            min = Math.min(min, stock);
+            max = Math.max(max, stock);
+            total += stock;
+            if (stock > 0) {
+                if (variant.size() != null) sizes.add(variant.size());
+                if (variant.color() != null) colors.add(variant.color());
+            }
+        }
+        listing.setMinStock(variants.isEmpty() ? 0 : min);
+        listing.setMaxStock(max);
+        listing.setTotalStock(total);
+        listing.setSizes(String.join(",", sizes));
+        listing.setColors(String.join(",", colors));
+        return listing;
+    }
+
+    private static String pathOf(Category category) {
+        LinkedList<String> names = new LinkedList<>();
+        Set<Long> seen = new HashSet<>();
+        for (Category c = category; c != null && seen.add(c.getId()); c = c.getParentCategory()) {
+            names.addFirst(c.getName());
+        }
+        return String.join(PATH_SEPARATOR, names);
+    }
+
+    private static String pathOf(Long categoryId, Map<Long, CategoryRow> categories) {
+        LinkedList<String> names = new LinkedList<>();
+        Set<Long> seen = new HashSet<>();
+        for (CategoryRow c = categories.get(categoryId); c != null && seen.add(c.id()); c = categories.get(c.parentId())) {
+            names.addFirst(c.name());
+        }
+        return String.join(PATH_SEPARATOR, names);
+    }
+}
@@ -1,9 +1,21 @@
 package com.fashionapp.resale_backend.product;
 
+import com.fashionapp.resale_backend.product.dto.SellerInventoryItemDto;
+import com.fashionapp.resale_backend.product.facet.FacetProductRow;
+import com.fashionapp.resale_backend.product.search.ProductSearchDocument;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
 
@@ -12,4 +24,82 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     long countBySellerIdAndStatus(Long sellerId, String status);
 
     long countBySellerId(Long sellerId);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.fashionapp.resale_backend.product.search.ProductSearchDocument(" +
+            "p.id, p.name, p.brand, p.description, c.name, c.id, p.basePrice, p.status) " +
+            "FROM Product p LEFT JOIN p.category c")
+    Slice<ProductSearchDocument> findSearchDocuments(Pageable pageable);
+
+    @Query("SELECT new com.fashionapp.resale_backend.product.search.ProductSearchDocument(" +
+            "p.id, p.name, p.brand, p.description, c.name, c.id, p.basePrice, p.status) " +
+            "FROM Product p LEFT JOIN p.category c WHERE p.id IN :ids")
+    List<ProductSearchDocument> findSearchDocumentsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.fashionapp.resale_backend.product.ProductRow(" +
+            "p.id, p.name, p.description, p.basePrice, p.brand, p.condition, p.status, c.name, s.shopName) " +
+            "FROM Product p LEFT JOIN p.category c JOIN p.seller s WHERE p.id IN :ids")
+    List<ProductRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id FROM Product p WHERE p.seller.id = :sellerId ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findIdsBySellerId(@Param("sellerId") Long sellerId);
+
+    @Query("SELECT p.id FROM Product p")
+    Slice<Long> findAllIds(Pageable pageable);
+
+    // Ascending id order, so two transactions locking overlapping sets cannot deadlock
+    @Query(value = "SELECT id FROM products WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.fashionapp.resale_backend.product.facet.FacetProductRow(" +
+            "p.id, p.status, c.id, p.brand, p.condition, p.basePrice) " +
+            "FROM Product p LEFT JOIN p.category c WHERE p.id IN :ids")
+    List<FacetProductRow> findFacetRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.fashionapp.resale_backend.product.ProductVersion(p.id, p.version, COALESCE(p.updatedAt, p.createdAt)) " +
+            "FROM Product p WHERE p.id = :id")
+    Optional<ProductVersion> findVersionById(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.version = p.version + 1, p.updatedAt = :now WHERE p.id IN :ids")
+    int bumpVersionByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.version = p.version + 1, p.updatedAt = :now WHERE p.seller.id = :sellerId")
+    int bumpVersionBySellerId(@Param("sellerId") Long sellerId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT new com.fashionapp.resale_backend.product.OwnerRow(p.id, p.id, p.seller.id) " +
+            "FROM Product p WHERE p.id IN :ids")
+    List<OwnerRow> findOwnersByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Seller inventory page with per-listing stock aggregates. {@code search} is a lower-cased LIKE pattern or null;
+     * when {@code lowStockThreshold} is set only listings with a variant at or below it are returned.
+     */
+    @Query(value = "SELECT new com.fashionapp.resale_backend.product.dto.SellerInventoryItemDto(" +
+            "p.id, p.name, p.brand, p.status, c.name, p.basePrice, p.createdAt, l.mainImageUrl, " +
+            "COALESCE(SUM(v.stockQuantity), 0), COUNT(v.id), " +
+            "SUM(CASE WHEN v.id IS NOT NULL AND COALESCE(v.stockQuantity, 0) = 0 THEN 1 ELSE 0 END)) " +
+            "FROM Product p LEFT JOIN p.category c LEFT JOIN p.variants v " +
+            "LEFT JOIN ProductListing l ON l.id = p.id " +
+            "WHERE p.seller.id = :sellerId " +
+            "AND (:status IS NULL OR p.status = :status) " +
+            "AND (:allCategories = TRUE OR c.id IN :categoryIds) " +
+            "AND (:search IS NULL OR LOWER(p.name) LIKE :search OR LOWER(p.brand) LIKE :search) " +
+            "AND (:lowStockThreshold IS NULL OR EXISTS (SELECT 1 FROM ProductVariant lv " +
+            "     WHERE lv.product = p AND COALESCE(lv.stockQuantity, 0) <= :lowStockThreshold)) " +
+            "GROUP BY p.id, p.name, p.brand, p.status, c.name, p.basePrice, p.createdAt, l.mainImageUrl",
+            countQuery = "SELECT COUNT(p) FROM Product p LEFT JOIN p.category c " +
+            "WHERE p.seller.id = :sellerId " +
+            "AND (:status IS NULL OR p.status = :status) " +
+            "AND (:allCategories = TRUE OR c.id IN :categoryIds) " +
+            "AND (:search IS NULL OR LOWER(p.name) LIKE :search OR LOWER(p.brand) LIKE :search) " +
+            "AND (:lowStockThreshold IS NULL OR EXISTS (SELECT 1 FROM ProductVariant lv " +
+            "     WHERE lv.product = p AND COALESCE(lv.stockQuantity, 0) <= :lowStockThreshold))")
+    Page<SellerInventoryItemDto> findSellerInventory(@Param("sellerId") Long sellerId,
+                                                     @Param("status") String status,
+                                                     @Param("allCategories") boolean allCategories,
+                                                     @Param("categoryIds") Collection<Long> categoryIds,
+                                                     @Param("search") String search,
+                                                     @Param("lowStockThreshold") Integer lowStockThreshold,
+                                                     Pageable pageable);
+}
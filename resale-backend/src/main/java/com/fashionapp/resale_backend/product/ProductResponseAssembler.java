@@ -0,0 +1,108 @@
+package com.fashionapp.resale_backend.product;
+
+import com.fashionapp.resale_backend.product.dto.ProductCardDto;
+import com.fashionapp.resale_backend.product.dto.ProductImageDto;
+import com.fashionapp.resale_backend.product.dto.ProductResponseDto;
+import com.fashionapp.resale_backend.product.dto.ProductVariantDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Read path for listing responses. Builds full ProductResponseDtos for any list of ids with exactly
+ * three queries (scalar rows, variants, images) regardless of how many products are requested,
+ * and never relies on lazy loading — it works the same with open-session-in-view disabled.
+ * Grid cards need a single query against the denormalized listing table.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductResponseAssembler {
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository variantRepository;
+    private final ProductImageRepository imageRepository;
+    private final ProductListingRepository listingRepository;
+
+    /**
+     * Returns DTOs in the order of the given ids; ids that no longer exist are skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductResponseDto> assemble(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, ProductRow> rows = productRepository.findRowsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductRow::id, r -> r));
+
+        Map<Long, List<ProductVariantDto>> variants = new HashMap<>();
+        for (VariantRow v : variantRepository.findRowsByProductIdIn(rows.keySet())) {
+            ProductVariantDto vDto = new ProductVariantDto();
+            vDto.setId(v.id());
+            vDto.setSize(v.size());
+            vDto.setColor(v.color());
+            vDto.setStockQuantity(v.stockQuantity());
+            variants.computeIfAbsent(v.productId(), k -> new ArrayList<>()).add(vDto);
+        }
+
+        Map<Long, List<ProductImageDto>> images = new HashMap<>();
+        for (ImageRow img : imageRepository.findRowsByProductIdIn(rows.keySet())) {
+            ProductImageDto imgDto = new ProductImageDto(img.id(), img.url(), img.gcsUri());
+            images.computeIfAbsent(img.productId(), k -> new ArrayList<>()).add(imgDto);
+        }
+
+        List<ProductResponseDto> result = new ArrayList<>(rows.size());
+        for (Long id : ids) {
+            ProductRow row = rows.get(id);
+            if (row == null) {
+                continue;
+            }
+            ProductResponseDto response = new ProductResponseDto();
+            response.setId(row.id());
+            response.setName(row.name());
+            response.setDescription(row.description());
+            response.setBasePrice(row.basePrice());
+            response.setBrand(row.brand());
+            response.setCondition(row.condition());
+            response.setStatus(row.status());
+            response.setCategoryName(row.categoryName());
+            response.setSellerShopName(row.sellerShopName());
+            response.setVariants(variants.getOrDefault(id, new ArrayList<>()));
+            response.setImages(images.getOrDefault(id, new ArrayList<>()));
+            result.add(response);
+        }
+        return result;
+    }
+
+    /**
+     * Returns card DTOs in the order of the given ids; ids without a listing row are skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductCardDto> assembleCards(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, ListingCardRow> rows = listingRepository.findCardRowsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ListingCardRow::id, r -> r));
+
+        List<ProductCardDto> result = new ArrayList<>(rows.size());
+        for (Long id : ids) {
+            ListingCardRow row = rows.get(id);
+            if (row == null) {
+                continue;
+            }
+            List<String> sizes = row.sizes() == null || row.sizes().isEmpty()
+                    ? List.of() : List.of(row.sizes().split(","));
+            result.add(new ProductCardDto(row.id(), row.name(), row.brand(), row.condition(), row.basePrice(),
+                    row.mainImageUrl(), row.sellerShopName(), sizes, row.totalStock() > 0));
+        }
+        return result;
+    }
+}
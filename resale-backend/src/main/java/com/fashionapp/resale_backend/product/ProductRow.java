@@ -0,0 +1,17 @@
+package com.fashionapp.resale_backend.product;
+
+/**
+ * Scalar columns of a listing plus the names it shows from its category and seller,
+ * loaded with a constructor projection so no Category/User entities are materialized.
+ */
+public record ProductRow(
+        Long id,
+        String name,
+        String description,
+        Double basePrice,
+        String brand,
+        String condition,
+        String status,
+        String categoryName,
+        String sellerShopName
+) {}
@@ -0,0 +1,19 @@
+package com.fashionapp.resale_backend.product;
+
+import java.util.Map;
+
+/**
+ * Units sold per product, published when an order is placed and again when it is paid.
+ * Feeds popularity signals; it does not imply any change to the listing itself.
+ */
+public record ProductSalesEvent(Map<Long, Integer> quantityByProduct, Stage stage) {
+
+    public enum Stage {
+        ORDERED,
+        PAID
+    }
+
+    public ProductSalesEvent {
+        quantityByProduct = Map.copyOf(quantityByProduct);
+    }
+}
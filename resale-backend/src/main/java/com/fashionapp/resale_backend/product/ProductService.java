@@ -4,9 +4,17 @@ import com.fashionapp.resale_backend.common.ai.VirtualTryOnService;
 import com.fashionapp.resale_backend.common.storage.FileUploadResult;
 import com.fashionapp.resale_backend.common.storage.GcsService;
 import com.fashionapp.resale_backend.product.dto.*;
+import com.fashionapp.resale_backend.product.flashsale.FlashSaleService;
+import com.fashionapp.resale_backend.product.search.ProductSearchCriteria;
+import com.fashionapp.resale_backend.product.search.ProductSearchEngine;
 import com.fashionapp.resale_backend.user.User;
 import com.fashionapp.resale_backend.user.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -14,22 +22,39 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final int SCROLL_TOTAL_CAP = 1000;
+    private static final String TRENDING_SORT = "trending";
+    private static final int MAX_BATCH_IDS = 100;
+
     private final ProductRepository productRepository;
+    private final ProductListingRepository listingRepository;
     private final CategoryRepository categoryRepository;
+    private final CategorySnapshotService categorySnapshotService;
     private final UserRepository userRepository;
     private final ProductImageRepository productImageRepository;
     private final GcsService gcsService;
     private final VirtualTryOnService virtualTryOnService;
+    private final ProductResponseAssembler responseAssembler;
+    private final ProductDetailCache productDetailCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FlashSaleService flashSaleService;
+    private final Optional<ProductSearchEngine> searchEngine;
 
     @Transactional
     public ProductResponseDto createProduct(ProductCreateDto dto) {
@@ -62,6 +87,7 @@ public class ProductService {
         }
 
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(savedProduct.getId()));
         return mapToResponse(savedProduct);
     }
 
@@ -80,9 +106,10 @@ public class ProductService {
             image.setGcsUri(result.gcsUri());
             image.setProduct(product);
 
-            productImageRepository.save(image);
+            product.getImages().add(productImageRepository.save(image));
         }
 
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId));
         return mapToResponse(product);
     }
 
@@ -102,8 +129,10 @@ public class ProductService {
             gcsService.deleteFile(image.getGcsUri());
         }
 
-        // 2. Delete from Database
+        // 2. Delete from Database (orphan removal deletes the row once it leaves the collection)
+        image.getProduct().getImages().remove(image);
         productImageRepository.delete(image);
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId));
     }
 
     @Transactional
@@ -125,17 +154,23 @@ public class ProductService {
         // Update variants (clearing and re-adding for simplicity)
         if (dto.getVariants() != null) {
             // Option A: If you want to allow changing stock/price without deleting the record:
+            // Index the existing variants once so each incoming variant is matched in O(1)
+            Map<Long, ProductVariant> existingById = new HashMap<>();
+            for (ProductVariant v : product.getVariants()) {
+                existingById.put(v.getId(), v);
+            }
             for (ProductVariantDto vDto : dto.getVariants()) {
                 if (vDto.getId() != null) {
                     // Update existing variant if it belongs to this product
-                    product.getVariants().stream()
-                            .filter(v -> v.getId().equals(vDto.getId()))
-                            .findFirst()
-                            .ifPresent(existingV -> {
-                                existingV.setSize(vDto.getSize());
-                                existingV.setColor(vDto.getColor());
-                                existingV.setStockQuantity(vDto.getStockQuantity());
-                            });
+                    ProductVariant existingV = existingById.get(vDto.getId());
+                    if (existingV != null) {
+                        existingV.setSize(vDto.getSize());
+                        existingV.setColor(vDto.getColor());
+                        // During a flash sale the sale's counters own the stock; it is written back as units sell
+                        if (!flashSaleService.isFlashSale(existingV.getId())) {
+                            existingV.setStockQuantity(vDto.getStockQuantity());
+                        }
+                    }
                 } else {
                     // Add as new
                     ProductVariant newVariant = new ProductVariant();
@@ -148,16 +183,14 @@ public class ProductService {
             }
         }
 
-        return mapToResponse(productRepository.save(product));
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(savedProduct.getId()));
+        return mapToResponse(savedProduct);
     }
 
     @Transactional(readOnly = true)
     public List<ProductResponseDto> getProductsBySeller(Long sellerId) {
-        // Keeps your preferred naming convention
-        List<Product> products = productRepository.findBySellerId(sellerId);
-        return products.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return responseAssembler.assemble(productRepository.findIdsBySellerId(sellerId));
     }
 
     public ProductResponseDto mapToResponse(Product product) {
@@ -204,20 +237,73 @@ public class ProductService {
     }
 
     @Transactional(readOnly = true)
-    public Page<ProductResponseDto> getStorefrontProducts(
+    public Page<ProductCardDto> getStorefrontProducts(
             String search,
             Long categoryId,
             Double minPrice,
             Double maxPrice,
             Pageable pageable) {
 
-        // 1. Initialize Specification
-        Specification<Product> spec = Specification.allOf();
+        // Ranked text search is delegated to the configured engine (app.search.engine)
+        if (search != null && !search.isBlank() && searchEngine.isPresent()) {
+            Set<Long> categoryIds = categoryId != null ? categorySnapshotService.current().getSubtreeIds(categoryId) : null;
+            Page<Long> ids = searchEngine.get().search(
+                    new ProductSearchCriteria(search, categoryIds, minPrice, maxPrice), pageable);
+            return loadPageInOrder(ids);
+        }
+
+        Specification<ProductListing> spec = buildStorefrontSpec(search, categoryId, minPrice, maxPrice);
+
+        // Execute dynamic paginated query (ids only) on the listing table, then load the cards in one more query
+        return loadPageInOrder(listingRepository.findIds(spec, resolveSortAliases(pageable)));
+    }
+
+    /**
+     * Keyset-paginated storefront for infinite scroll. Unlike the Page endpoint it never runs an exact COUNT
+     * and its cost does not grow with depth. Text search uses the plain LIKE filter here, since relevance
+     * ranking cannot be expressed as a stable keyset.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<ProductCardDto> scrollStorefrontProducts(
+            String search,
+            Long categoryId,
+            Double minPrice,
+            Double maxPrice,
+            ScrollSort sort,
+            String cursor,
+            int size,
+            boolean withTotal) {
+
+        Specification<ProductListing> spec = buildStorefrontSpec(search, categoryId, minPrice, maxPrice);
+        ProductCursor after = cursor != null && !cursor.isBlank() ? ProductCursor.decode(cursor, sort) : null;
+
+        // One extra row tells us whether another slice exists without counting
+        List<ProductCursor> rows = listingRepository.findCursorPage(spec, sort, after, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<ProductCursor> slice = hasNext ? rows.subList(0, size) : rows;
+
+        List<ProductCardDto> content = responseAssembler.assembleCards(slice.stream().map(ProductCursor::id).toList());
+        String nextCursor = hasNext ? slice.get(slice.size() - 1).encode() : null;
+
+        Long approximateTotal = null;
+        boolean totalIsLowerBound = false;
+        if (withTotal) {
+            long counted = listingRepository.countUpTo(spec, SCROLL_TOTAL_CAP + 1);
+            totalIsLowerBound = counted > SCROLL_TOTAL_CAP;
+            approximateTotal = Math.min(counted, SCROLL_TOTAL_CAP);
+        }
+
+        return new CursorPageDto<>(content, nextCursor, hasNext, approximateTotal, totalIsLowerBound);
+    }
+
+    private Specification<ProductListing> buildStorefrontSpec(String search, Long categoryId, Double minPrice, Double maxPrice) {
+        // 1. Initialize Specification (storefront filters run against the denormalized product_listing table)
+        Specification<ProductListing> spec = Specification.allOf();
 
         // 2. Recursive Category Filter (Finds products in this category AND all its subcategories)
         if (categoryId != null) {
-            List<Long> allCategoryIds = getAllChildIds(categoryId);
-            spec = spec.and((root, query, cb) -> root.get("category").get("id").in(allCategoryIds));
+            Set<Long> allCategoryIds = categorySnapshotService.current().getSubtreeIds(categoryId);
+            spec = spec.and((root, query, cb) -> root.get("categoryId").in(allCategoryIds));
         }
 
         // 3. Price Range Filters
@@ -243,31 +329,65 @@ public class ProductService {
             );
         }
 
-        // 6. Execute dynamic paginated query
-        return productRepository.findAll(spec, pageable).map(this::mapToResponse);
+        return spec;
     }
 
     /**
-     * Helper method: Recursively finds all subcategory IDs.
-     * This ensures filtering by "Men" includes "Men's Tops", "Hoodies", etc.
+     * Helper method: maps public sort names onto listing columns. "trending" is the precomputed, time-decayed
+     * sales score (highest first, newest first among equals), so sorting by it never aggregates order_items.
      */
-    private List<Long> getAllChildIds(Long categoryId) {
-        List<Long> ids = new ArrayList<>();
-        ids.add(categoryId);
-        categoryRepository.findById(categoryId).ifPresent(cat -> {
-            if (cat.getSubCategories() != null) {
-                for (Category sub : cat.getSubCategories()) {
-                    ids.addAll(getAllChildIds(sub.getId()));
-                }
+    private Pageable resolveSortAliases(Pageable pageable) {
+        if (pageable.getSort().getOrderFor(TRENDING_SORT) == null) {
+            return pageable;
+        }
+        Sort sort = Sort.by(Sort.Order.desc("trendingScore"), Sort.Order.desc("createdAt"));
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    /**
+     * Helper method: Assembles a page of ids into DTOs, keeping the order of the id page.
+     */
+    private Page<ProductCardDto> loadPageInOrder(Page<Long> ids) {
+        List<ProductCardDto> content = responseAssembler.assembleCards(ids.getContent());
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+    }
+
+    // Not transactional: cache hits never borrow a connection, misses are loaded by the assembler's own transaction
+    public ProductResponseDto getProductById(Long id) {
+        return productDetailCache.get(id)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+    }
+
+    /**
+     * Products for cart, wishlist and order screens in one call: cached entries are reused and all misses
+     * are assembled together, so the query count does not depend on how many ids are requested.
+     * Results follow the request order; duplicates are collapsed and unknown ids skipped.
+     */
+    public List<ProductResponseDto> getProductsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        unique.remove(null);
+        if (unique.size() > MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BATCH_IDS + " product ids per request");
+        }
+
+        Map<Long, ProductResponseDto> found = productDetailCache.getAll(unique);
+        List<ProductResponseDto> result = new ArrayList<>(found.size());
+        for (Long id : unique) {
+            ProductResponseDto dto = found.get(id);
+            if (dto != null) {
+                result.add(dto);
             }
-        });
-        return ids;
+        }
+        return result;
     }
 
     @Transactional(readOnly = true)
-    public ProductResponseDto getProductById(Long id) {
-        return productRepository.findById(id)
-                .map(this::mapToResponse)
+    public ProductVersion getProductVersion(Long id) {
+        return productRepository.findVersionById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
     }
 
@@ -0,0 +1,61 @@
+package com.fashionapp.resale_backend.product;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Version bumps and listing refreshes for stock-only changes. A checkout only queues its product ids once it has
+ * committed; a scheduled run then bumps and refreshes everything queued in one transaction. No checkout waits on the
+ * products or product_listing row locks or needs a second connection for them, and a product selling hundreds of
+ * units a second gets one row write per run instead of one per checkout.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductStockRefresher {
+
+    private final ProductVersionService versionService;
+    private final ProductListingService listingService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    @TransactionalEventListener(condition = "#event.stockOnly()", fallbackExecution = true)
+    public void onStockChanged(ProductChangedEvent event) {
+        pending.addAll(event.productIds());
+    }
+
+    @Scheduled(fixedDelayString = "${app.products.stock-refresh:PT1S}")
+    public synchronized void refresh() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // Taken off the queue before reading, so a checkout committing meanwhile is either read here or queued again
+        Set<Long> productIds = new HashSet<>(pending);
+        pending.removeAll(productIds);
+        try {
+            // Refresh first: it locks the product rows in id order, which the bump then reuses
+            transactionTemplate.executeWithoutResult(status -> {
+                listingService.refresh(productIds);
+                versionService.bump(productIds);
+            });
+        } catch (RuntimeException e) {
+            pending.addAll(productIds);
+            log.error("Stock refresh failed for {} products", productIds.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void refreshOnShutdown() {
+        refresh();
+    }
+}
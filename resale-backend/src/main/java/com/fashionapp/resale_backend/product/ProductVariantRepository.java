@@ -1,9 +1,24 @@
 package com.fashionapp.resale_backend.product;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductVariantRepository extends JpaRepository<ProductVariant, Long> {
     // Allows you to find all sizes/colors for a specific product
     List<ProductVariant> findByProductId(Long productId);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.fashionapp.resale_backend.product.VariantRow(v.product.id, v.id, v.size, v.color, v.stockQuantity) " +
+            "FROM ProductVariant v WHERE v.product.id IN :productIds ORDER BY v.id")
+    List<VariantRow> findRowsByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT new com.fashionapp.resale_backend.product.OwnerRow(v.id, p.id, p.seller.id) " +
+            "FROM ProductVariant v JOIN v.product p WHERE v.id IN :ids")
+    List<OwnerRow> findOwnersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT v FROM ProductVariant v JOIN FETCH v.product WHERE v.id IN :ids")
+    List<ProductVariant> findWithProductByIdIn(@Param("ids") Collection<Long> ids);
+}
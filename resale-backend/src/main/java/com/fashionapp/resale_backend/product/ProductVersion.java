@@ -0,0 +1,19 @@
+package com.fashionapp.resale_backend.product;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Version stamp of a listing, loaded without touching its variants, images or relations.
+ */
+public record ProductVersion(Long id, long version, LocalDateTime lastModified) {
+
+    // Strong validator: any buyer-visible change bumps the version
+    public String eTag() {
+        return "\"p" + id + "-" + version + "\"";
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified != null ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+}
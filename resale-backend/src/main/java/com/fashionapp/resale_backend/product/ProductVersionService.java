@@ -0,0 +1,43 @@
+package com.fashionapp.resale_backend.product;
+
+import com.fashionapp.resale_backend.user.ShopRenamedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Bumps {@link Product#getVersion()} inside the writing transaction whenever something a buyer sees changes,
+ * including changes that live outside the products row (variants, images, the seller's shop name).
+ * Stock-only changes are bumped by {@link ProductStockRefresher} shortly after commit instead, so a checkout never
+ * holds the products row lock; until then the old version still validates the new stock.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductVersionService {
+
+    private final ProductRepository productRepository;
+
+    @EventListener(condition = "!#event.stockOnly()")
+    @Transactional
+    public void onProductChanged(ProductChangedEvent event) {
+        bump(event.productIds());
+    }
+
+    @EventListener
+    @Transactional
+    public void onShopRenamed(ShopRenamedEvent event) {
+        productRepository.bumpVersionBySellerId(event.sellerId(), LocalDateTime.now());
+    }
+
+    void bump(Set<Long> productIds) {
+        // One atomic UPDATE after the writer's pending changes are flushed: concurrent writers each get their own
+        // version, and no full-row write from a stale snapshot can undo another transaction's edit
+        if (!productIds.isEmpty()) {
+            productRepository.bumpVersionByIds(productIds, LocalDateTime.now());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.fashionapp.resale_backend.product;
+
+import com.fashionapp.resale_backend.product.protobuf.ProductProtobufHttpMessageConverter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Picks the encoding of a conditional GET up front, so its validators can name it: the same version sent as JSON
+ * and as protobuf are different representations and must not share an ETag. Controllers pin the picked type as
+ * the Content-Type and send {@code Vary: Accept}.
+ */
+final class ResponseFormats {
+
+    static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    // In the order the converters are registered (see BinaryFormatConfig), so JSON wins for */*
+    static final List<MediaType> JACKSON = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE);
+    static final List<MediaType> PRODUCT = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE,
+            ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF);
+
+    private ResponseFormats() {}
+
+    /**
+     * The first of {@code producible} that the client's most preferred acceptable type matches.
+     *
+     * @throws ResponseStatusException 406 when the client accepts none of them
+     */
+    static MediaType negotiate(String accept, List<MediaType> producible) {
+        List<MediaType> accepted = new ArrayList<>();
+        try {
+            accepted.addAll(MediaType.parseMediaTypes(accept));
+        } catch (IllegalArgumentException e) {
+            // Malformed header: fall back to the default representation
+            accepted.clear();
+        }
+        if (accepted.isEmpty()) {
+            accepted.add(MediaType.ALL);
+        }
+        // Sorts by quality first, so "application/cbor, */*;q=0.1" prefers CBOR
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            for (MediaType candidate : producible) {
+                if (type.isCompatibleWith(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "Acceptable representations: " + producible);
+    }
+
+    /**
+     * Adds the encoding to a quoted entity tag: {@code "p1-3"} becomes {@code "p1-3-cbor"}.
+     */
+    static String eTag(String eTag, MediaType type) {
+        return eTag.substring(0, eTag.length() - 1) + "-" + type.getSubtype() + "\"";
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header allows gzip: a {@code gzip} (or legacy {@code x-gzip}) coding, or
+     * failing that {@code *}, listed with a quality above zero. {@code gzip;q=0} refuses it. Codings with a
+     * malformed quality are ignored.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] params = coding.split(";");
+            String name = params[0].trim().toLowerCase();
+            double quality = 1;
+            try {
+                for (int i = 1; i < params.length; i++) {
+                    String param = params[i].trim();
+                    if (param.length() > 2 && param.substring(0, 2).equalsIgnoreCase("q=")) {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    }
+                }
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = Math.max(gzip, quality);
+            } else if (name.equals("*")) {
+                any = Math.max(any, quality);
+            }
+        }
+        return (gzip >= 0 ? gzip : any) > 0;
+    }
+}
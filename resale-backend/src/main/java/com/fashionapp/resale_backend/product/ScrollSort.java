@@ -0,0 +1,25 @@
+package com.fashionapp.resale_backend.product;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Orderings supported by keyset pagination. Each one is a total order ending in the id,
+ * so a (key, id) pair identifies an exact position in the result set.
+ */
+public enum ScrollSort {
+    NEWEST,     // createdAt DESC, id DESC
+    PRICE_ASC,  // basePrice ASC, id ASC
+    PRICE_DESC; // basePrice DESC, id DESC
+
+    public static ScrollSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return NEWEST;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported sort: " + value);
+        }
+    }
+}
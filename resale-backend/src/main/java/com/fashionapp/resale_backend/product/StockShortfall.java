@@ -0,0 +1,14 @@
+package com.fashionapp.resale_backend.product;
+
+/**
+ * One cart line that could not be fulfilled: how many units were asked for and how many are left.
+ */
+public record StockShortfall(
+        Long variantId,
+        Long productId,
+        String productName,
+        String size,
+        String color,
+        int requested,
+        int available
+) {}
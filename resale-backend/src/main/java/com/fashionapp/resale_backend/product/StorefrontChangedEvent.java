@@ -0,0 +1,10 @@
+package com.fashionapp.resale_backend.product;
+
+import java.util.Set;
+
+/**
+ * Published by {@link ProductListingService} when a write changes what a storefront card shows or which pages a
+ * listing falls on (fields, status, price, main image, sizes in stock, in/out of stock, created or removed).
+ * Changes to stock counts alone, such as most checkouts, do not publish it.
+ */
+public record StorefrontChangedEvent(Set<Long> productIds) {}
@@ -0,0 +1,116 @@
+package com.fashionapp.resale_backend.product;
+
+import com.fashionapp.resale_backend.product.dto.ProductCardDto;
+import com.fashionapp.resale_backend.user.ShopRenamedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Short-lived cache of storefront result pages ({@code GET /api/products}) held as gzipped JSON,
+ * so a hit is served by copying bytes: no queries, no serialization, no compression.
+ * Keys are normalized (trimmed, lower-cased search; explicit sort) so equivalent requests share an entry.
+ * A miss is computed once per key while concurrent callers for that key wait on it. Writes that change a card
+ * or move a listing between pages clear the cache once committed; changes to stock counts alone (most checkouts)
+ * do not, so the TTL bounds how stale those and background updates such as trending scores can get.
+ */
+@Component
+public class StorefrontPageCache {
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final int maxCachedPage;
+    private final Cache<Key, byte[]> cache;
+
+    record Key(String search, Long categoryId, Double minPrice, Double maxPrice, int page, int size, String sort) {}
+
+    public StorefrontPageCache(ProductService productService,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.cache.storefront.max-weight-bytes:16777216}") long maxWeightBytes,
+                               @Value("${app.cache.storefront.ttl:PT30S}") Duration ttl,
+                               @Value("${app.cache.storefront.max-cached-page:4}") int maxCachedPage) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.maxCachedPage = maxCachedPage;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Key key, byte[] gzipped) -> gzipped.length)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "storefrontPage");
+    }
+
+    /**
+     * Returns the page as gzipped JSON. Deep pages are rendered on every call rather than cached:
+     * they are rarely repeated and would only push the hot first pages out.
+     */
+    public byte[] getGzipped(String search, Long categoryId, Double minPrice, Double maxPrice, Pageable pageable) {
+        String normalizedSearch = search == null || search.isBlank() ? null : search.trim().toLowerCase(Locale.ROOT);
+        Key key = new Key(normalizedSearch, categoryId, minPrice, maxPrice,
+                pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString());
+
+        if (pageable.getPageNumber() >= maxCachedPage) {
+            return render(key, pageable);
+        }
+        return cache.get(key, k -> render(k, pageable));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // Such a write can move a listing into or out of any page, so there is no narrower key set to drop
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStorefrontChanged(StorefrontChangedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShopRenamed(ShopRenamedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidateAll();
+    }
+
+    public static byte[] gunzip(byte[] gzipped) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] render(Key key, Pageable pageable) {
+        // Both the LIKE filter and the search engines match case-insensitively, so the normalized text is equivalent
+        Page<ProductCardDto> page = productService.getStorefrontProducts(
+                key.search(), key.categoryId(), key.minPrice(), key.maxPrice(), pageable);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            objectMapper.writeValue(gzip, page);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,3 @@
+package com.fashionapp.resale_backend.product;
+
+public record VariantRow(Long productId, Long id, String size, String color, Integer stockQuantity) {}
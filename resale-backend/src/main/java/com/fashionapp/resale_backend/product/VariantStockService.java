@@ -0,0 +1,127 @@
+package com.fashionapp.resale_backend.product;
+
+import com.fashionapp.resale_backend.product.flashsale.FlashSaleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stock decrements that cannot oversell. Each variant is decremented by a conditional
+ * {@code UPDATE ... WHERE stock_quantity >= ?}, so the check and the write are one atomic step in the database
+ * instead of a read-modify-write in Java. The row lock taken by that UPDATE is held until the caller's transaction
+ * ends, and every caller takes its locks in ascending variant id order, so two checkouts over the same variants
+ * wait for each other instead of deadlocking. Variants in a flash sale are taken from the in-memory counters of
+ * {@link FlashSaleService} instead, and their row is updated later in batches.
+ */
+@Service
+@RequiredArgsConstructor
+public class VariantStockService {
+
+    private static final int BATCH_SIZE = 100;
+    private static final String DECREMENT =
+            "UPDATE product_variants SET stock_quantity = stock_quantity - ? WHERE id = ? AND stock_quantity >= ?";
+    private static final String RESTORE =
+            "UPDATE product_variants SET stock_quantity = stock_quantity + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductVariantRepository variantRepository;
+    private final FlashSaleService flashSaleService;
+
+    /**
+     * Takes {@code quantities} (variant id to units) out of stock within the current transaction and returns the
+     * variants, with their products, as they are after the decrement. If any variant is missing or short, throws
+     * after checking all of them, and the caller's rollback restores the ones that succeeded.
+     * Must run before these variants are loaded into the current persistence context, or the loaded copies go stale.
+     */
+    @Transactional
+    public Map<Long, ProductVariant> decrement(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return Map.of();
+        }
+        quantities.forEach((variantId, quantity) -> {
+            if (variantId == null || quantity == null || quantity <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Each item needs a productVariantId and a quantity greater than zero");
+            }
+        });
+
+        // 1. Flash-sale lines come out of the in-memory counters; only the rest is decremented in the database
+        List<StockShortfall> shortfalls = new ArrayList<>();
+        Map<Long, Integer> dbQuantities = flashSaleService.take(quantities, shortfalls);
+
+        // 2. One batched round trip of conditional decrements, in ascending id order (deterministic lock order)
+        List<Map.Entry<Long, Integer>> ordered = new ArrayList<>(new TreeMap<>(dbQuantities).entrySet());
+        int[][] counts = ordered.isEmpty() ? new int[0][] :
+                jdbcTemplate.batchUpdate(DECREMENT, ordered, BATCH_SIZE, (ps, entry) -> {
+                    ps.setInt(1, entry.getValue());
+                    ps.setLong(2, entry.getKey());
+                    ps.setInt(3, entry.getValue());
+                });
+        // A sale that opened meanwhile read the stock before this decrement; roll back rather than oversell
+        if (ordered.stream().anyMatch(entry -> flashSaleService.isFlashSale(entry.getKey()))) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "A flash sale just started, please retry");
+        }
+
+        // 3. One query for all variants and their products, reading the post-decrement stock
+        Map<Long, ProductVariant> variants = new HashMap<>();
+        for (ProductVariant variant : variantRepository.findWithProductByIdIn(quantities.keySet())) {
+            variants.put(variant.getId(), variant);
+        }
+
+        // 4. A zero update count means the variant is missing or short; report every such line
+        List<Long> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                Map.Entry<Long, Integer> entry = ordered.get(index++);
+                if (count != 0) {
+                    continue;
+                }
+                ProductVariant variant = variants.get(entry.getKey());
+                if (variant == null) {
+                    missing.add(entry.getKey());
+                } else {
+                    Product product = variant.getProduct();
+                    int available = variant.getStockQuantity() != null ? Math.max(variant.getStockQuantity(), 0) : 0;
+                    shortfalls.add(new StockShortfall(variant.getId(), product.getId(), product.getName(),
+                            variant.getSize(), variant.getColor(), entry.getValue(), available));
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Variant not found: " + missing);
+        }
+        if (!shortfalls.isEmpty()) {
+            throw new InsufficientStockException(shortfalls);
+        }
+        return variants;
+    }
+
+    /**
+     * Puts {@code quantities} (variant id to units) back on sale, e.g. when an unpaid order's hold expires.
+     * Same batching and lock order as {@link #decrement}; variants deleted in the meantime are skipped.
+     * Units of variants still in a flash sale also go back into its counters.
+     */
+    @Transactional
+    public void restore(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Integer>> ordered = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+        jdbcTemplate.batchUpdate(RESTORE, ordered, BATCH_SIZE, (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setLong(2, entry.getKey());
+        });
+        flashSaleService.giveBack(quantities);
+    }
+}
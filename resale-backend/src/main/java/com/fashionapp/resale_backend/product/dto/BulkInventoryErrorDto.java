@@ -0,0 +1,6 @@
+package com.fashionapp.resale_backend.product.dto;
+
+/**
+ * A skipped entry: {@code type} is "stock" (id = variant id) or "price" (id = product id).
+ */
+public record BulkInventoryErrorDto(String type, Long id, String message) {}
@@ -0,0 +1,9 @@
+package com.fashionapp.resale_backend.product.dto;
+
+import java.util.List;
+
+public record BulkInventoryResultDto(
+        int variantsUpdated,
+        int productsRepriced,
+        List<BulkInventoryErrorDto> errors
+) {}
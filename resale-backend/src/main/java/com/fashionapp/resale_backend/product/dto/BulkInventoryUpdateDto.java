@@ -0,0 +1,28 @@
+package com.fashionapp.resale_backend.product.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Stock and price changes for many listings in one request. Stock is per variant,
+ * price is per product (variants share their product's base price).
+ * If an id appears more than once, the last entry wins.
+ */
+@Data
+public class BulkInventoryUpdateDto {
+    private List<StockUpdate> stock;
+    private List<PriceUpdate> prices;
+
+    @Data
+    public static class StockUpdate {
+        private Long variantId;
+        private Integer stockQuantity;
+    }
+
+    @Data
+    public static class PriceUpdate {
+        private Long productId;
+        private Double basePrice;
+    }
+}
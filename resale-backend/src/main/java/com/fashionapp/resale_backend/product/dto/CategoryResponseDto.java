@@ -8,5 +8,6 @@ public class CategoryResponseDto {
     private Long id;
     private String name;
     private Long parentId;
+    private long productCount; // Active listings in this category and all of its subcategories
     private List<CategoryResponseDto> subCategories; // Recursive list
-}
\ No newline at end of file
+}
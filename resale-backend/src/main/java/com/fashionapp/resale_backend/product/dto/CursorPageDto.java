@@ -0,0 +1,16 @@
+package com.fashionapp.resale_backend.product.dto;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated listing. Pass nextCursor back to get the following slice.
+ * approximateTotal is only filled when requested; when totalIsLowerBound is true the real
+ * total is larger and the value is the cap that was counted up to.
+ */
+public record CursorPageDto<T>(
+        List<T> content,
+        String nextCursor,
+        boolean hasNext,
+        Long approximateTotal,
+        boolean totalIsLowerBound
+) {}
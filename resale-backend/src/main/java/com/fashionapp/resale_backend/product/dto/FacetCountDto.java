@@ -0,0 +1,3 @@
+package com.fashionapp.resale_backend.product.dto;
+
+public record FacetCountDto(String value, String label, long count, boolean selected) {}
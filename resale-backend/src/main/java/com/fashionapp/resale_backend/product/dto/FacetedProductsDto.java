@@ -0,0 +1,15 @@
+package com.fashionapp.resale_backend.product.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of filtered listings together with the counts for every facet value,
+ * e.g. facets.sizes = [{ value: "m", label: "M", count: 124 }, ...].
+ */
+public record FacetedProductsDto(
+        Page<ProductCardDto> products,
+        Map<String, List<FacetCountDto>> facets
+) {}
@@ -0,0 +1,6 @@
+package com.fashionapp.resale_backend.product.dto;
+
+/**
+ * A variant's flash sale. {@code state} is OPENING, OPEN or CLOSING; {@code available} is the units still on sale.
+ */
+public record FlashSaleStatusDto(Long variantId, Long productId, String state, int available) {}
@@ -0,0 +1,13 @@
+package com.fashionapp.resale_backend.product.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Body of {@code POST /api/products/batch}, for id lists too long for a query string.
+ */
+@Data
+public class ProductBatchRequestDto {
+    private List<Long> ids;
+}
@@ -0,0 +1,20 @@
+package com.fashionapp.resale_backend.product.dto;
+
+import java.util.List;
+
+/**
+ * Compact listing for grid views: only what a card renders. The full variant and image lists
+ * stay on {@link ProductResponseDto}, served by the detail endpoint.
+ * {@code sizes} lists the sizes that are currently in stock.
+ */
+public record ProductCardDto(
+        Long id,
+        String name,
+        String brand,
+        String condition,
+        Double basePrice,
+        String mainImageUrl,
+        String sellerShopName,
+        List<String> sizes,
+        boolean inStock
+) {}
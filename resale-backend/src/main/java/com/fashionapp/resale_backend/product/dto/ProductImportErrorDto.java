@@ -0,0 +1,6 @@
+package com.fashionapp.resale_backend.product.dto;
+
+/**
+ * A rejected import row. {@code line} is the 1-based line in the uploaded file where the row starts.
+ */
+public record ProductImportErrorDto(long line, String message) {}
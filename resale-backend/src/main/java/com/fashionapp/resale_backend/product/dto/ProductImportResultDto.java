@@ -0,0 +1,13 @@
+package com.fashionapp.resale_backend.product.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Only the first errors are listed; {@code failed} is always the full count.
+ */
+public record ProductImportResultDto(
+        long imported,
+        long failed,
+        List<ProductImportErrorDto> errors,
+        boolean errorsTruncated
+) {}
@@ -0,0 +1,20 @@
+package com.fashionapp.resale_backend.product.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the seller inventory console: listing fields plus stock aggregates computed in SQL.
+ */
+public record SellerInventoryItemDto(
+        Long productId,
+        String name,
+        String brand,
+        String status,
+        String categoryName,
+        Double basePrice,
+        LocalDateTime createdAt,
+        String mainImageUrl,
+        Long totalStock,
+        Long variantCount,
+        Long outOfStockVariants
+) {}
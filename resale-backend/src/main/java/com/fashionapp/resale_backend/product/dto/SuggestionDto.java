@@ -0,0 +1,7 @@
+package com.fashionapp.resale_backend.product.dto;
+
+/**
+ * One autocomplete entry. {@code type} is PRODUCT, BRAND or CATEGORY; {@code listings} is how many
+ * active listings carry the phrase.
+ */
+public record SuggestionDto(String text, String type, int listings) {}
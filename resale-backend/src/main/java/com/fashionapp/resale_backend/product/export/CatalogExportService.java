@@ -0,0 +1,281 @@
+package com.fashionapp.resale_backend.product.export;
+
+import com.fashionapp.resale_backend.product.CategoryChangedEvent;
+import com.fashionapp.resale_backend.product.CategorySnapshot;
+import com.fashionapp.resale_backend.product.CategorySnapshotService;
+import com.fashionapp.resale_backend.product.ProductChangedEvent;
+import com.fashionapp.resale_backend.product.ProductService;
+import com.fashionapp.resale_backend.product.dto.ProductCardDto;
+import com.fashionapp.resale_backend.user.ShopRenamedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental static export of the category tree and each category's first storefront pages, for the CDN edge.
+ *
+ * <p>Every shard is written as {@code <prefix>/<key>.<hash>.json}, named by a hash of its content, so files are
+ * immutable and can be cached forever; {@code manifest.json} is the only mutable file. A run renders all shards,
+ * compares their hashes with the previous manifest and uploads only those that changed, then publishes the new
+ * manifest last, so a client never sees a manifest pointing at files that are not there yet. Runs are skipped
+ * entirely while no product, category or shop name has changed.
+ *
+ * <p>Every instance schedules the export, but a run only proceeds while holding a PostgreSQL advisory lock keyed on
+ * the prefix, and it reads the previous manifest from the target after taking it. Two instances therefore never
+ * publish at once, and neither builds on a manifest the other has since replaced. An instance that finds the lock
+ * taken stays dirty and tries again on its next run.
+ */
+@Slf4j
+@Service
+public class CatalogExportService {
+
+    private static final String MANIFEST = "manifest.json";
+    private static final String JSON = "application/json";
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String NO_CACHE = "no-cache";
+    private static final int FILE_HASH_CHARS = 16;
+
+    private final Optional<CatalogExportTarget> target;
+    private final CategorySnapshotService categorySnapshotService;
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final String prefix;
+    private final long lockKey;
+    private final int pagesPerCategory;
+    private final int pageSize;
+    private final Duration retiredRetention;
+
+    private volatile boolean dirty = true;
+
+    public CatalogExportService(Optional<CatalogExportTarget> target,
+                                CategorySnapshotService categorySnapshotService,
+                                ProductService productService,
+                                ObjectMapper objectMapper,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${app.export.prefix:catalog}") String prefix,
+                                @Value("${app.export.pages-per-category:2}") int pagesPerCategory,
+                                @Value("${app.export.page-size:24}") int pageSize,
+                                @Value("${app.export.retired-retention:PT1H}") Duration retiredRetention) {
+        this.target = target;
+        this.categorySnapshotService = categorySnapshotService;
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.prefix = prefix.endsWith("/") ? prefix : prefix + "/";
+        this.lockKey = ("catalog-export:" + this.prefix).hashCode();
+        this.pagesPerCategory = pagesPerCategory;
+        this.pageSize = pageSize;
+        this.retiredRetention = retiredRetention;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        dirty = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        dirty = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShopRenamed(ShopRenamedEvent event) {
+        dirty = true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.export.interval:PT5M}", initialDelayString = "${app.export.initial-delay:PT1M}")
+    public void scheduledExport() {
+        if (target.isEmpty() || !dirty) {
+            return;
+        }
+        try {
+            export();
+        } catch (RuntimeException e) {
+            // Leave the flag set so the next run retries; the published manifest still points at complete files
+            dirty = true;
+            log.error("Catalog export failed", e);
+        }
+    }
+
+    /**
+     * Runs one export and returns the manifest now published (the previous one if nothing changed, or the one
+     * another instance is replacing if that instance holds the export lock).
+     */
+    public synchronized CatalogManifest export() {
+        CatalogExportTarget out = target.orElseThrow(() -> new IllegalStateException("app.export.target is not set"));
+        // Cleared before reading, so a write that lands during the run marks the next run dirty again
+        dirty = false;
+
+        // The lock lives on this connection's session, which is held (outside any transaction) for the whole run
+        CatalogManifest published = jdbcTemplate.execute((ConnectionCallback<CatalogManifest>) con -> {
+            if (!lock(con, "pg_try_advisory_lock")) {
+                return null;
+            }
+            try {
+                return exportLocked(out);
+            } finally {
+                lock(con, "pg_advisory_unlock");
+            }
+        });
+        if (published == null) {
+            dirty = true;
+            log.debug("Catalog export skipped: another instance is exporting");
+            return readManifest(out);
+        }
+        return published;
+    }
+
+    private CatalogManifest exportLocked(CatalogExportTarget out) {
+        long started = System.currentTimeMillis();
+        // Read under the lock: the last run may have been another instance's
+        CatalogManifest previous = readManifest(out);
+        Map<String, CatalogManifest.Shard> previousShards = previous != null ? previous.shards() : Map.of();
+        Instant now = Instant.now();
+
+        // 1. Render every shard and upload the ones whose content hash is new
+        Map<String, CatalogManifest.Shard> shards = new LinkedHashMap<>();
+        List<String> changed = new ArrayList<>();
+        List<CatalogManifest.RetiredFile> retired = new ArrayList<>();
+        render().forEach((key, bytes) -> {
+            String sha256 = sha256(bytes);
+            CatalogManifest.Shard before = previousShards.get(key);
+            if (before != null && before.sha256().equals(sha256)) {
+                shards.put(key, before);
+                return;
+            }
+            String path = prefix + key + "." + sha256.substring(0, FILE_HASH_CHARS) + ".json";
+            out.write(path, bytes, JSON, IMMUTABLE);
+            shards.put(key, new CatalogManifest.Shard(path, sha256, bytes.length));
+            changed.add(key);
+            if (before != null && !before.path().equals(path)) {
+                retired.add(new CatalogManifest.RetiredFile(before.path(), now.plus(retiredRetention)));
+            }
+        });
+
+        List<String> removed = new ArrayList<>();
+        previousShards.forEach((key, shard) -> {
+            if (!shards.containsKey(key)) {
+                removed.add(key);
+                retired.add(new CatalogManifest.RetiredFile(shard.path(), now.plus(retiredRetention)));
+            }
+        });
+
+        // 2. Files retired by earlier runs are deleted once their grace period is over
+        List<CatalogManifest.RetiredFile> expired = new ArrayList<>();
+        if (previous != null) {
+            for (CatalogManifest.RetiredFile file : previous.retired()) {
+                (file.deleteAfter().isBefore(now) ? expired : retired).add(file);
+            }
+        }
+
+        // A shard whose content reverted to an earlier version is live again under its old name
+        Set<String> live = shards.values().stream().map(CatalogManifest.Shard::path).collect(Collectors.toSet());
+        retired.removeIf(file -> live.contains(file.path()));
+        expired.removeIf(file -> live.contains(file.path()));
+
+        if (changed.isEmpty() && removed.isEmpty() && expired.isEmpty() && previous != null) {
+            log.debug("Catalog export: no shard changed ({} ms)", System.currentTimeMillis() - started);
+            return previous;
+        }
+
+        // 3. Publish the manifest last; only then are expired files removed
+        retired.sort(Comparator.comparing(CatalogManifest.RetiredFile::deleteAfter));
+        CatalogManifest manifest = new CatalogManifest(previous != null ? previous.version() + 1 : 1, now,
+                shards, changed, removed, retired);
+        out.write(prefix + MANIFEST, serialize(manifest), JSON, NO_CACHE);
+        expired.forEach(file -> out.delete(file.path()));
+
+        log.info("Catalog export v{}: {} shards, {} changed, {} removed, {} files deleted in {} ms",
+                manifest.version(), shards.size(), changed.size(), removed.size(), expired.size(),
+                System.currentTimeMillis() - started);
+        return manifest;
+    }
+
+    private boolean lock(Connection con, String function) throws SQLException {
+        try (PreparedStatement statement = con.prepareStatement("SELECT " + function + "(?)")) {
+            statement.setLong(1, lockKey);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private Map<String, byte[]> render() {
+        Map<String, byte[]> shards = new LinkedHashMap<>();
+        CategorySnapshot snapshot = categorySnapshotService.current();
+        shards.put("categories", serialize(snapshot.getTree()));
+
+        List<CategorySnapshot.Node> nodes = new ArrayList<>(snapshot.getNodes());
+        nodes.sort(Comparator.comparing(CategorySnapshot.Node::id));
+        for (CategorySnapshot.Node node : nodes) {
+            for (int page = 0; page < pagesPerCategory; page++) {
+                // Same query, filters and sort as the storefront's default listing
+                Page<ProductCardDto> cards = productService.getStorefrontProducts(null, node.id(), null, null,
+                        PageRequest.of(page, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")));
+                shards.put("category/" + node.id() + "/page-" + page, serialize(new CategoryPageShard(node.id(), page,
+                        pageSize, cards.getTotalElements(), cards.getTotalPages(), cards.getContent())));
+                if (!cards.hasNext()) {
+                    break;
+                }
+            }
+        }
+        return shards;
+    }
+
+    private CatalogManifest readManifest(CatalogExportTarget out) {
+        return out.read(prefix + MANIFEST).map(bytes -> {
+            try {
+                return objectMapper.readValue(bytes, CatalogManifest.class);
+            } catch (IOException e) {
+                // An unreadable manifest only costs one full re-upload
+                log.warn("Ignoring unreadable catalog manifest: {}", e.getMessage());
+                return null;
+            }
+        }).orElse(null);
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.fashionapp.resale_backend.product.export;
+
+import java.util.Optional;
+
+/**
+ * Where the static catalog export is written (app.export.target). Paths are relative, '/'-separated.
+ */
+public interface CatalogExportTarget {
+
+    void write(String path, byte[] content, String contentType, String cacheControl);
+
+    Optional<byte[]> read(String path);
+
+    void delete(String path);
+}
@@ -0,0 +1,27 @@
+package com.fashionapp.resale_backend.product.export;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry point of the static catalog export, always at {@code <prefix>/manifest.json} and never cached.
+ * {@code shards} maps a stable key ("categories", "category/12/page-0") to its current content-hashed file;
+ * a client keeps the hashes it has and downloads only the shards whose hash differs. {@code changed} and
+ * {@code removed} list the keys that differ from {@code version - 1}, so a client one version behind can skip
+ * the comparison. Files in {@code retired} are still readable until {@code deleteAfter}, for clients that
+ * are mid-way through an older manifest.
+ */
+public record CatalogManifest(
+        long version,
+        Instant generatedAt,
+        Map<String, Shard> shards,
+        List<String> changed,
+        List<String> removed,
+        List<RetiredFile> retired
+) {
+
+    public record Shard(String path, String sha256, int bytes) {}
+
+    public record RetiredFile(String path, Instant deleteAfter) {}
+}
@@ -0,0 +1,18 @@
+package com.fashionapp.resale_backend.product.export;
+
+import com.fashionapp.resale_backend.product.dto.ProductCardDto;
+
+import java.util.List;
+
+/**
+ * One exported storefront page of a category (subcategories included, newest first), the same cards
+ * {@code GET /api/products?categoryId=..} returns. Holds no timestamps, so unchanged pages hash the same.
+ */
+public record CategoryPageShard(
+        Long categoryId,
+        int page,
+        int size,
+        long totalElements,
+        int totalPages,
+        List<ProductCardDto> content
+) {}
@@ -0,0 +1,34 @@
+package com.fashionapp.resale_backend.product.export;
+
+import com.fashionapp.resale_backend.common.storage.GcsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Export into the application's GCS bucket (app.export.target=gcs), which the CDN fronts.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.export.target", havingValue = "gcs")
+public class GcsCatalogExportTarget implements CatalogExportTarget {
+
+    private final GcsService gcsService;
+
+    @Override
+    public void write(String path, byte[] content, String contentType, String cacheControl) {
+        gcsService.uploadBytes(content, path, contentType, cacheControl);
+    }
+
+    @Override
+    public Optional<byte[]> read(String path) {
+        return gcsService.downloadBytes(path);
+    }
+
+    @Override
+    public void delete(String path) {
+        gcsService.deleteObject(path);
+    }
+}
@@ -0,0 +1,68 @@
+package com.fashionapp.resale_backend.product.export;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Export into a local directory served by a static web server or synced to the CDN origin
+ * (app.export.target=local). Cache headers are left to that server's configuration.
+ * Files are written to a temp name and moved into place, so readers never see a partial file.
+ */
+@Component
+@ConditionalOnProperty(name = "app.export.target", havingValue = "local")
+public class LocalCatalogExportTarget implements CatalogExportTarget {
+
+    private final Path root;
+
+    public LocalCatalogExportTarget(@Value("${app.export.local-dir:./catalog-export}") Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void write(String path, byte[] content, String contentType, String cacheControl) {
+        Path file = resolve(path);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), ".export-", ".tmp");
+            Files.write(temp, content);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + file, e);
+        }
+    }
+
+    @Override
+    public Optional<byte[]> read(String path) {
+        Path file = resolve(path);
+        try {
+            return Files.exists(file) ? Optional.of(Files.readAllBytes(file)) : Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + file, e);
+        }
+    }
+
+    @Override
+    public void delete(String path) {
+        try {
+            Files.deleteIfExists(resolve(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete " + path, e);
+        }
+    }
+
+    private Path resolve(String path) {
+        Path file = root.resolve(path).normalize();
+        if (!file.startsWith(root)) {
+            throw new IllegalArgumentException("Export path escapes the export directory: " + path);
+        }
+        return file;
+    }
+}
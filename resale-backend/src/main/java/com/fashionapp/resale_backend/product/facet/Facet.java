@@ -0,0 +1,24 @@
+package com.fashionapp.resale_backend.product.facet;
+
+/**
+ * Filterable listing attributes. Values within one facet are OR-ed, different facets are AND-ed.
+ */
+public enum Facet {
+    SIZE("sizes"),
+    COLOR("colors"),
+    BRAND("brands"),
+    CONDITION("conditions"),
+    PRICE("priceBuckets"),
+    STOCK("inStock");
+
+    private final String param;
+
+    Facet(String param) {
+        this.param = param;
+    }
+
+    // Request parameter and response key for this facet
+    public String param() {
+        return param;
+    }
+}
@@ -0,0 +1,19 @@
+package com.fashionapp.resale_backend.product.facet;
+
+import java.util.Set;
+
+/**
+ * Everything the facet index stores about one listing.
+ * sizes/colors only include variants that are in stock, so "M" means "M can be bought".
+ */
+public record FacetDocument(
+        Long id,
+        boolean active,
+        Long categoryId,
+        String brand,
+        String condition,
+        Double basePrice,
+        Set<String> sizes,
+        Set<String> colors,
+        boolean inStock
+) {}
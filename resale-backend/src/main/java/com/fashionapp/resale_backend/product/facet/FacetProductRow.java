@@ -0,0 +1,3 @@
+package com.fashionapp.resale_backend.product.facet;
+
+public record FacetProductRow(Long id, String status, Long categoryId, String brand, String condition, Double basePrice) {}
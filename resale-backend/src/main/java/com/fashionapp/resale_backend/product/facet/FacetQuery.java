@@ -0,0 +1,10 @@
+package com.fashionapp.resale_backend.product.facet;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @param categoryIds category subtree to restrict to, or null for all categories
+ * @param selections  selected facet value keys, keyed by facet; absent or empty = no filter on that facet
+ */
+public record FacetQuery(Set<Long> categoryIds, Map<Facet, Set<String>> selections) {}
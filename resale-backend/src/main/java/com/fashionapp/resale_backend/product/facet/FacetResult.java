@@ -0,0 +1,12 @@
+package com.fashionapp.resale_backend.product.facet;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matching ids for one page (newest first), the total match count, and per-facet value counts.
+ */
+public record FacetResult(List<Long> pageIds, long total, Map<Facet, List<FacetCount>> counts) {
+
+    public record FacetCount(String value, String label, long count) {}
+}
@@ -0,0 +1,256 @@
+package com.fashionapp.resale_backend.product.facet;
+
+import com.fashionapp.resale_backend.common.utils.SearchTextUtil;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmap per facet value over the ids of ACTIVE listings.
+ * A filter is the intersection of (OR of selected values) per facet; counts are computed
+ * disjunctively, i.e. each facet is counted against every other facet's selection but not its own,
+ * so picking "M" still shows how many "L" listings there are.
+ */
+public class ProductFacetIndex {
+
+    private static final int MAX_VALUES_PER_FACET = 50;
+    private static final String IN_STOCK = "true";
+
+    private final List<PriceBucket> priceBuckets;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> categories = new HashMap<>();
+    private final Map<Facet, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(Facet.class);
+    private final Map<Facet, Map<String, String>> labels = new EnumMap<>(Facet.class);
+    private final Map<Integer, IndexedKeys> documents = new HashMap<>();
+
+    private record IndexedKeys(Long categoryId, Map<Facet, Set<String>> keys) {}
+
+    private record PriceBucket(String key, double from, double to) {}
+
+    /**
+     * @param priceBoundaries ascending bucket edges, e.g. [100000, 250000] gives 0-100000, 100000-250000, 250000+
+     */
+    public ProductFacetIndex(List<Double> priceBoundaries) {
+        List<PriceBucket> buckets = new ArrayList<>();
+        double from = 0;
+        for (double edge : priceBoundaries) {
+            buckets.add(new PriceBucket(formatPrice(from) + "-" + formatPrice(edge), from, edge));
+            from = edge;
+        }
+        buckets.add(new PriceBucket(formatPrice(from) + "+", from, Double.POSITIVE_INFINITY));
+        this.priceBuckets = List.copyOf(buckets);
+
+        for (Facet facet : Facet.values()) {
+            bitmaps.put(facet, new HashMap<>());
+            labels.put(facet, new HashMap<>());
+        }
+    }
+
+    public void upsert(FacetDocument doc) {
+        int id = Math.toIntExact(doc.id());
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            if (!doc.active()) {
+                return;
+            }
+
+            Map<Facet, Set<String>> keys = new EnumMap<>(Facet.class);
+            for (String size : doc.sizes()) {
+                addValue(keys, Facet.SIZE, size);
+            }
+            for (String color : doc.colors()) {
+                addValue(keys, Facet.COLOR, color);
+            }
+            addValue(keys, Facet.BRAND, doc.brand());
+            addValue(keys, Facet.CONDITION, doc.condition());
+            if (doc.basePrice() != null) {
+                PriceBucket bucket = bucketFor(doc.basePrice());
+                keys.computeIfAbsent(Facet.PRICE, f -> new HashSet<>()).add(bucket.key());
+                labels.get(Facet.PRICE).putIfAbsent(bucket.key(), bucket.key());
+            }
+            if (doc.inStock()) {
+                keys.computeIfAbsent(Facet.STOCK, f -> new HashSet<>()).add(IN_STOCK);
+                labels.get(Facet.STOCK).putIfAbsent(IN_STOCK, "In stock");
+            }
+
+            keys.forEach((facet, values) -> values.forEach(value ->
+                    bitmaps.get(facet).computeIfAbsent(value, v -> new RoaringBitmap()).add(id)));
+            if (doc.categoryId() != null) {
+                categories.computeIfAbsent(doc.categoryId(), c -> new RoaringBitmap()).add(id);
+            }
+            all.add(id);
+            documents.put(id, new IndexedKeys(doc.categoryId(), keys));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(Math.toIntExact(productId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return all.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normalized key for a raw facet value as sent by clients ("Black" and "black" are the same value).
+     */
+    public static String keyOf(String value) {
+        return SearchTextUtil.fold(value.trim());
+    }
+
+    public FacetResult query(FacetQuery query, long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap base = all.clone();
+            if (query.categoryIds() != null) {
+                RoaringBitmap inCategories = new RoaringBitmap();
+                for (Long categoryId : query.categoryIds()) {
+                    RoaringBitmap bm = categories.get(categoryId);
+                    if (bm != null) {
+                        inCategories.or(bm);
+                    }
+                }
+                base.and(inCategories);
+            }
+
+            Map<Facet, RoaringBitmap> selected = new EnumMap<>(Facet.class);
+            query.selections().forEach((facet, values) -> {
+                if (values != null && !values.isEmpty()) {
+                    RoaringBitmap union = new RoaringBitmap();
+                    for (String value : values) {
+                        RoaringBitmap bm = bitmaps.get(facet).get(value);
+                        if (bm != null) {
+                            union.or(bm);
+                        }
+                    }
+                    selected.put(facet, union);
+                }
+            });
+
+            RoaringBitmap matches = base.clone();
+            selected.values().forEach(matches::and);
+
+            Map<Facet, List<FacetResult.FacetCount>> counts = new EnumMap<>(Facet.class);
+            for (Facet facet : Facet.values()) {
+                RoaringBitmap context = base.clone();
+                selected.forEach((other, bm) -> {
+                    if (other != facet) {
+                        context.and(bm);
+                    }
+                });
+                counts.put(facet, countValues(facet, context, query.selections().get(facet)));
+            }
+
+            return new FacetResult(page(matches, offset, limit), matches.getLongCardinality(), counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<FacetResult.FacetCount> countValues(Facet facet, RoaringBitmap context, Set<String> selectedValues) {
+        List<FacetResult.FacetCount> result = new ArrayList<>();
+        bitmaps.get(facet).forEach((value, bm) -> {
+            long count = RoaringBitmap.andCardinality(context, bm);
+            // Selected values stay visible even at zero so the client can render (and clear) them
+            if (count > 0 || (selectedValues != null && selectedValues.contains(value))) {
+                result.add(new FacetResult.FacetCount(value, labels.get(facet).get(value), count));
+            }
+        });
+
+        if (facet == Facet.PRICE) {
+            List<String> order = priceBuckets.stream().map(PriceBucket::key).toList();
+            result.sort(Comparator.comparingInt(c -> order.indexOf(c.value())));
+            return result;
+        }
+        result.sort(Comparator.comparingLong(FacetResult.FacetCount::count).reversed()
+                .thenComparing(FacetResult.FacetCount::label));
+        return result.size() > MAX_VALUES_PER_FACET ? List.copyOf(result.subList(0, MAX_VALUES_PER_FACET)) : result;
+    }
+
+    // Ids are assigned in creation order, so walking the bitmap backwards yields newest first
+    private static List<Long> page(RoaringBitmap matches, long offset, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        IntIterator it = matches.getReverseIntIterator();
+        long skipped = 0;
+        while (it.hasNext() && ids.size() < limit) {
+            int id = it.next();
+            if (skipped++ >= offset) {
+                ids.add((long) id);
+            }
+        }
+        return ids;
+    }
+
+    private void addValue(Map<Facet, Set<String>> keys, Facet facet, String raw) {
+        if (raw == null || raw.isBlank()) {
+            return;
+        }
+        String key = keyOf(raw);
+        keys.computeIfAbsent(facet, f -> new HashSet<>()).add(key);
+        labels.get(facet).putIfAbsent(key, raw.trim());
+    }
+
+    private void removeInternal(int id) {
+        IndexedKeys existing = documents.remove(id);
+        if (existing == null) {
+            return;
+        }
+        all.remove(id);
+        if (existing.categoryId() != null) {
+            RoaringBitmap bm = categories.get(existing.categoryId());
+            if (bm != null) {
+                bm.remove(id);
+                if (bm.isEmpty()) {
+                    categories.remove(existing.categoryId());
+                }
+            }
+        }
+        existing.keys().forEach((facet, values) -> values.forEach(value -> {
+            RoaringBitmap bm = bitmaps.get(facet).get(value);
+            if (bm != null) {
+                bm.remove(id);
+                if (bm.isEmpty()) {
+                    bitmaps.get(facet).remove(value);
+                    labels.get(facet).remove(value);
+                }
+            }
+        }));
+    }
+
+    private PriceBucket bucketFor(double price) {
+        for (PriceBucket bucket : priceBuckets) {
+            if (price < bucket.to()) {
+                return bucket;
+            }
+        }
+        return priceBuckets.get(priceBuckets.size() - 1);
+    }
+
+    private static String formatPrice(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
@@ -0,0 +1,162 @@
+package com.fashionapp.resale_backend.product.facet;
+
+import com.fashionapp.resale_backend.product.CategorySnapshotService;
+import com.fashionapp.resale_backend.product.ProductChangedEvent;
+import com.fashionapp.resale_backend.product.ProductRepository;
+import com.fashionapp.resale_backend.product.ProductResponseAssembler;
+import com.fashionapp.resale_backend.product.ProductVariantRepository;
+import com.fashionapp.resale_backend.product.VariantRow;
+import com.fashionapp.resale_backend.product.dto.FacetCountDto;
+import com.fashionapp.resale_backend.product.dto.FacetedProductsDto;
+import com.fashionapp.resale_backend.product.dto.ProductCardDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Faceted storefront filtering (size, color, brand, condition, price bucket, in-stock) answered from
+ * {@link ProductFacetIndex}. Built in full at startup and kept current from {@link ProductChangedEvent}s,
+ * which both listing edits and checkout stock changes publish.
+ */
+@Slf4j
+@Service
+public class ProductFacetService {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository variantRepository;
+    private final ProductResponseAssembler responseAssembler;
+    private final CategorySnapshotService categorySnapshotService;
+    private final List<Double> priceBoundaries;
+
+    private volatile ProductFacetIndex index;
+    private volatile Set<Long> changedDuringRebuild;
+
+    // Held from reading rows to applying them, so an older read can never land after a newer one
+    private final Object reindexLock = new Object();
+
+    public ProductFacetService(ProductRepository productRepository,
+                               ProductVariantRepository variantRepository,
+                               ProductResponseAssembler responseAssembler,
+                               CategorySnapshotService categorySnapshotService,
+                               @Value("${app.facets.price-buckets:100000,250000,500000,1000000}") List<Double> priceBoundaries) {
+        this.productRepository = productRepository;
+        this.variantRepository = variantRepository;
+        this.responseAssembler = responseAssembler;
+        this.categorySnapshotService = categorySnapshotService;
+        this.priceBoundaries = List.copyOf(priceBoundaries);
+        this.index = new ProductFacetIndex(this.priceBoundaries);
+    }
+
+    public FacetedProductsDto search(Long categoryId, Map<Facet, Set<String>> rawSelections, Pageable pageable) {
+        Map<Facet, Set<String>> selections = new EnumMap<>(Facet.class);
+        rawSelections.forEach((facet, values) -> {
+            if (values != null && !values.isEmpty()) {
+                selections.put(facet, values.stream().map(ProductFacetIndex::keyOf).collect(Collectors.toSet()));
+            }
+        });
+        Set<Long> categoryIds = categoryId != null ? categorySnapshotService.current().getSubtreeIds(categoryId) : null;
+
+        FacetResult result = index.query(new FacetQuery(categoryIds, selections), pageable.getOffset(), pageable.getPageSize());
+
+        List<ProductCardDto> content = responseAssembler.assembleCards(result.pageIds());
+        Map<String, List<FacetCountDto>> facets = new LinkedHashMap<>();
+        result.counts().forEach((facet, counts) -> {
+            Set<String> selected = selections.getOrDefault(facet, Set.of());
+            facets.put(facet.param(), counts.stream()
+                    .map(c -> new FacetCountDto(c.value(), c.label(), c.count(), selected.contains(c.value())))
+                    .toList());
+        });
+
+        return new FacetedProductsDto(new PageImpl<>(content, pageable, result.total()), facets);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+        ProductFacetIndex fresh = new ProductFacetIndex(priceBoundaries);
+        Pageable page = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+        Slice<Long> slice;
+        do {
+            slice = productRepository.findAllIds(page);
+            reindex(fresh, new HashSet<>(slice.getContent()));
+            page = slice.nextPageable();
+        } while (slice.hasNext());
+
+        index = fresh;
+        Set<Long> pending = changedDuringRebuild;
+        changedDuringRebuild = null;
+        reindex(fresh, new HashSet<>(pending));
+
+        log.info("Facet index rebuilt: {} active listings in {} ms", fresh.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Set<Long> pending = changedDuringRebuild;
+        if (pending != null) {
+            pending.addAll(event.productIds());
+        }
+        reindex(index, event.productIds());
+    }
+
+    private void reindex(ProductFacetIndex target, Set<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        synchronized (reindexLock) {
+            apply(target, productIds);
+        }
+    }
+
+    private void apply(ProductFacetIndex target, Set<Long> productIds) {
+        Map<Long, List<VariantRow>> variants = new HashMap<>();
+        for (VariantRow v : variantRepository.findRowsByProductIdIn(productIds)) {
+            variants.computeIfAbsent(v.productId(), k -> new ArrayList<>()).add(v);
+        }
+
+        Set<Long> missing = new HashSet<>(productIds);
+        for (FacetProductRow row : productRepository.findFacetRowsByIdIn(productIds)) {
+            Set<String> sizes = new HashSet<>();
+            Set<String> colors = new HashSet<>();
+            boolean inStock = false;
+            for (VariantRow v : variants.getOrDefault(row.id(), List.of())) {
+                if (v.stockQuantity() != null && v.stockQuantity() > 0) {
+                    inStock = true;
+                    if (v.size() != null) sizes.add(v.size());
+                    if (v.color() != null) colors.add(v.color());
+                }
+            }
+            target.upsert(new FacetDocument(row.id(), "ACTIVE".equals(row.status()), row.categoryId(),
+                    row.brand(), row.condition(), row.basePrice(), sizes, colors, inStock));
+            missing.remove(row.id());
+        }
+        missing.forEach(target::remove);
+    }
+}
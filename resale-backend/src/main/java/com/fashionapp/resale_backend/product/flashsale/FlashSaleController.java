@@ -0,0 +1,38 @@
+package com.fashionapp.resale_backend.product.flashsale;
+
+import com.fashionapp.resale_backend.product.dto.FlashSaleStatusDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Sellers put one of their variants into flash-sale mode before a drop and end it afterwards.
+ */
+@RestController
+@RequestMapping("/api/flash-sales")
+@RequiredArgsConstructor
+public class FlashSaleController {
+
+    private final FlashSaleService flashSaleService;
+
+    @PostMapping("/{variantId}")
+    public ResponseEntity<FlashSaleStatusDto> start(@PathVariable Long variantId) {
+        return ResponseEntity.ok(flashSaleService.start(variantId));
+    }
+
+    @GetMapping("/{variantId}")
+    public ResponseEntity<FlashSaleStatusDto> getStatus(@PathVariable Long variantId) {
+        return ResponseEntity.ok(flashSaleService.getStatus(variantId));
+    }
+
+    // Waits for in-progress checkouts and writes every sale to the database before the variant leaves the sale
+    @DeleteMapping("/{variantId}")
+    public ResponseEntity<FlashSaleStatusDto> end(@PathVariable Long variantId) {
+        return ResponseEntity.ok(flashSaleService.end(variantId));
+    }
+}
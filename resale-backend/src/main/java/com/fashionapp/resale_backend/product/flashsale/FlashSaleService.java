@@ -0,0 +1,365 @@
+package com.fashionapp.resale_backend.product.flashsale;
+
+import com.fashionapp.resale_backend.product.InsufficientStockException;
+import com.fashionapp.resale_backend.product.OwnerRow;
+import com.fashionapp.resale_backend.product.ProductChangedEvent;
+import com.fashionapp.resale_backend.product.ProductVariant;
+import com.fashionapp.resale_backend.product.ProductVariantRepository;
+import com.fashionapp.resale_backend.product.StockShortfall;
+import com.fashionapp.resale_backend.product.dto.FlashSaleStatusDto;
+import com.fashionapp.resale_backend.user.User;
+import com.fashionapp.resale_backend.user.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Flash-sale mode for variants that many buyers check out at the same moment.
+ *
+ * <p>Starting a sale preloads the variant's stock into a {@link FlashSaleStock}; from then on checkouts take units
+ * from those in-memory counters instead of each one updating (and row-locking) the same product_variants row.
+ * Buyers are admitted through a fair semaphore with a bounded wait, so the database sees a steady number of
+ * checkouts rather than every request at once, and once the counters are empty requests are rejected before
+ * reaching the database. Units taken by committed checkouts are written to product_variants in batches by a
+ * scheduled flush, so the row still converges to the true stock and the storefront keeps showing it.
+ *
+ * <p>Counters live in this JVM: with several instances, route a sale's checkouts to one of them. Units sold since the
+ * last flush are written on a graceful shutdown, but are lost if the JVM dies; the row then shows more stock than is
+ * left, so re-check a sale's orders against its starting stock after a crash.
+ */
+@Slf4j
+@Service
+public class FlashSaleService {
+
+    private static final int BATCH_SIZE = 100;
+    private static final String LOCK_STOCK = "SELECT stock_quantity FROM product_variants WHERE id = ? FOR UPDATE";
+    private static final String PERSIST =
+            "UPDATE product_variants SET stock_quantity = stock_quantity - ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductVariantRepository variantRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int stripes;
+    private final int maxQueued;
+    private final Duration queueTimeout;
+    private final Duration drainTimeout;
+
+    private final Map<Long, FlashSaleStock> sales = new ConcurrentHashMap<>();
+    private final Map<Long, PendingUnits> pending = new ConcurrentHashMap<>();
+    private final Semaphore checkoutPermits;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private record PendingUnits(Long productId, LongAdder units) {}
+
+    public FlashSaleService(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            ProductVariantRepository variantRepository,
+                            UserRepository userRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${app.flash-sale.stripes:0}") int stripes,
+                            @Value("${app.flash-sale.checkout-permits:8}") int checkoutPermits,
+                            @Value("${app.flash-sale.max-queued:500}") int maxQueued,
+                            @Value("${app.flash-sale.queue-timeout:PT2S}") Duration queueTimeout,
+                            @Value("${app.flash-sale.drain-timeout:PT5S}") Duration drainTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.variantRepository = variantRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.stripes = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+        this.maxQueued = maxQueued;
+        this.queueTimeout = queueTimeout;
+        this.drainTimeout = drainTimeout;
+        // Fair: buyers are let through in arrival order
+        this.checkoutPermits = new Semaphore(checkoutPermits, true);
+    }
+
+    public FlashSaleStatusDto start(Long variantId) {
+        requireOwner(variantId);
+        return toStatus(open(variantId));
+    }
+
+    public FlashSaleStatusDto end(Long variantId) {
+        requireOwner(variantId);
+        FlashSaleStock stock = sales.get(variantId);
+        if (stock == null || stock.getState() != FlashSaleStock.State.OPEN) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No running flash sale for variant " + variantId);
+        }
+        close(stock);
+        return toStatus(stock);
+    }
+
+    public FlashSaleStatusDto getStatus(Long variantId) {
+        FlashSaleStock stock = sales.get(variantId);
+        if (stock == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No flash sale for variant " + variantId);
+        }
+        return toStatus(stock);
+    }
+
+    public boolean isFlashSale(Long variantId) {
+        return sales.containsKey(variantId);
+    }
+
+    /**
+     * Runs {@code checkout} for a cart. Carts without flash-sale variants run straight through. Others are rejected
+     * without touching the database when a variant is sold out, and otherwise wait in a fair, bounded queue for one
+     * of the checkout permits: a full queue or a wait past {@code app.flash-sale.queue-timeout} gives 429.
+     */
+    public <T> T admit(Map<Long, Integer> quantityByVariant, Supplier<T> checkout) {
+        if (sales.isEmpty() || quantityByVariant.keySet().stream().noneMatch(sales::containsKey)) {
+            return checkout.get();
+        }
+        rejectIfSoldOut(quantityByVariant);
+
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many buyers waiting, please retry");
+        }
+        boolean admitted;
+        try {
+            admitted = checkoutPermits.tryAcquire(queueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Checkout interrupted");
+        } finally {
+            queued.decrementAndGet();
+        }
+        if (!admitted) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many buyers waiting, please retry");
+        }
+        try {
+            // It may have sold out while this buyer was queued
+            rejectIfSoldOut(quantityByVariant);
+            return checkout.get();
+        } finally {
+            checkoutPermits.release();
+        }
+    }
+
+    /**
+     * Takes the flash-sale lines of {@code quantityByVariant} from the counters and returns the remaining lines,
+     * which the caller decrements in the database. Lines that are short are added to {@code shortfalls}.
+     * Must run inside the checkout transaction: on commit the units are queued for the database, on rollback they
+     * go back on sale.
+     */
+    public Map<Long, Integer> take(Map<Long, Integer> quantityByVariant, List<StockShortfall> shortfalls) {
+        if (sales.isEmpty()) {
+            return quantityByVariant;
+        }
+        Map<Long, Integer> remainder = new HashMap<>();
+        Checkout checkout = null;
+        for (Map.Entry<Long, Integer> line : quantityByVariant.entrySet()) {
+            FlashSaleStock stock = sales.get(line.getKey());
+            if (stock == null) {
+                remainder.put(line.getKey(), line.getValue());
+                continue;
+            }
+            FlashSaleStock.Take take = stock.tryTake(line.getValue());
+            if (take == FlashSaleStock.Take.CLOSED) {
+                // Units already taken for this cart go back through the rollback this causes
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Flash sale for variant " + line.getKey() + " is starting or ending, please retry");
+            }
+            if (take == FlashSaleStock.Take.SHORT) {
+                shortfalls.add(stock.shortfall(line.getValue()));
+                continue;
+            }
+            if (checkout == null) {
+                checkout = new Checkout();
+                TransactionSynchronizationManager.registerSynchronization(checkout);
+            }
+            checkout.taken.merge(stock, line.getValue(), Integer::sum);
+        }
+        return remainder;
+    }
+
+    /**
+     * Puts units of cancelled or expired orders back on sale, for the variants that are still in a flash sale.
+     * The caller restores the database row itself; the counters follow once that transaction commits.
+     */
+    public void giveBack(Map<Long, Integer> quantityByVariant) {
+        if (sales.isEmpty()) {
+            return;
+        }
+        Runnable give = () -> quantityByVariant.forEach((variantId, quantity) -> {
+            FlashSaleStock stock = sales.get(variantId);
+            if (stock != null) {
+                stock.give(quantity);
+            }
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    give.run();
+                }
+            });
+        } else {
+            give.run();
+        }
+    }
+
+    /**
+     * Writes units sold since the last run to product_variants: one batched round trip, in ascending id order.
+     * Synchronized so the flush in {@link #close} also waits for a scheduled one that is still committing.
+     */
+    @Scheduled(fixedDelayString = "${app.flash-sale.flush-interval:PT1S}")
+    public synchronized void flush() {
+        Map<Long, Integer> decrements = new TreeMap<>();
+        Set<Long> productIds = new HashSet<>();
+        pending.forEach((variantId, units) -> {
+            // sumThenReset hands each sale to exactly one flush
+            long sold = units.units().sumThenReset();
+            if (sold > 0) {
+                decrements.put(variantId, Math.toIntExact(sold));
+                productIds.add(units.productId());
+            }
+        });
+        if (decrements.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(PERSIST, new ArrayList<>(decrements.entrySet()), BATCH_SIZE, (ps, entry) -> {
+                    ps.setInt(1, entry.getValue());
+                    ps.setLong(2, entry.getKey());
+                });
+                eventPublisher.publishEvent(ProductChangedEvent.stock(productIds));
+            });
+        } catch (RuntimeException e) {
+            // Queue the units again so the next run retries them
+            decrements.forEach((variantId, sold) -> pending.get(variantId).units().add(sold));
+            log.error("Flash sale flush failed for {} variants", decrements.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    FlashSaleStock open(Long variantId) {
+        ProductVariant variant = variantRepository.findWithProductByIdIn(List.of(variantId)).stream().findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Variant not found: " + variantId));
+        FlashSaleStock stock = new FlashSaleStock(variantId, variant.getProduct().getId(), variant.getProduct().getName(),
+                variant.getSize(), variant.getColor(), stripes);
+        if (sales.putIfAbsent(variantId, stock) != null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A flash sale is already running for variant " + variantId);
+        }
+        try {
+            // Registered before the row lock is taken, so a checkout decrementing the row in the database either
+            // commits before the read below (and is counted) or sees the sale afterwards and rolls back
+            Integer units = transactionTemplate.execute(status ->
+                    jdbcTemplate.queryForObject(LOCK_STOCK, Integer.class, variantId));
+            stock.open(units != null ? Math.max(units, 0) : 0);
+        } catch (RuntimeException e) {
+            sales.remove(variantId, stock);
+            throw e;
+        }
+        log.info("Flash sale started for variant {} with {} units", variantId, stock.available());
+        return stock;
+    }
+
+    void close(FlashSaleStock stock) {
+        // 1. Stop taking new checkouts and wait for the ones in progress to commit or roll back
+        stock.setState(FlashSaleStock.State.CLOSING);
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        while (stock.inFlight() > 0) {
+            if (System.nanoTime() > deadline) {
+                stock.setState(FlashSaleStock.State.OPEN);
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Checkouts are still in progress, please retry");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stock.setState(FlashSaleStock.State.OPEN);
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while ending the sale");
+            }
+        }
+
+        // 2. Write every sale to the database, then hand the variant back to the regular checkout path
+        flush();
+        sales.remove(stock.getVariantId(), stock);
+        log.info("Flash sale ended for variant {} with {} units left", stock.getVariantId(), stock.available());
+    }
+
+    private void rejectIfSoldOut(Map<Long, Integer> quantityByVariant) {
+        List<StockShortfall> shortfalls = new ArrayList<>();
+        quantityByVariant.forEach((variantId, quantity) -> {
+            FlashSaleStock stock = sales.get(variantId);
+            if (stock != null && quantity != null && stock.available() < quantity) {
+                shortfalls.add(stock.shortfall(quantity));
+            }
+        });
+        if (!shortfalls.isEmpty()) {
+            throw new InsufficientStockException(shortfalls);
+        }
+    }
+
+    private void requireOwner(Long variantId) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User seller = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Authenticated user not found"));
+        OwnerRow owner = variantRepository.findOwnersByIdIn(List.of(variantId)).stream().findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Variant not found: " + variantId));
+        if (!owner.sellerId().equals(seller.getId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Unauthorized: You do not own this product.");
+        }
+    }
+
+    private FlashSaleStatusDto toStatus(FlashSaleStock stock) {
+        return new FlashSaleStatusDto(stock.getVariantId(), stock.getProductId(), stock.getState().name(),
+                stock.available());
+    }
+
+    /**
+     * Units one checkout transaction took, settled when that transaction ends.
+     */
+    private final class Checkout implements TransactionSynchronization {
+
+        private final Map<FlashSaleStock, Integer> taken = new HashMap<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            taken.forEach((stock, quantity) -> {
+                if (status == STATUS_ROLLED_BACK) {
+                    stock.give(quantity);
+                } else {
+                    // An unknown outcome is treated as sold: at worst the sale undersells, it never oversells
+                    pending.computeIfAbsent(stock.getVariantId(), id -> new PendingUnits(stock.getProductId(), new LongAdder()))
+                            .units().add(quantity);
+                }
+                stock.settle(quantity);
+            });
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.fashionapp.resale_backend.product.flashsale;
+
+import com.fashionapp.resale_backend.product.StockShortfall;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Units of one flash-sale variant split across counters ("stripes") that sit on separate cache lines, so buyers
+ * on different threads mostly CAS different memory instead of all retrying on one word. A buyer starts at the stripe
+ * picked by its thread and moves on to the others when that one is empty. Units only move by CAS, so the total
+ * never goes below zero.
+ */
+class FlashSaleStock {
+
+    enum State { OPENING, OPEN, CLOSING }
+
+    enum Take { TAKEN, SHORT, CLOSED }
+
+    // 16 ints = 64 bytes: one stripe per cache line
+    private static final int PAD = 16;
+
+    @Getter
+    private final Long variantId;
+    @Getter
+    private final Long productId;
+    private final String productName;
+    private final String size;
+    private final String color;
+    private final int stripes;
+    private final AtomicIntegerArray cells;
+    // Units taken by checkouts whose transaction has not finished yet
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Getter @Setter
+    private volatile State state = State.OPENING;
+
+    FlashSaleStock(Long variantId, Long productId, String productName, String size, String color, int stripes) {
+        this.variantId = variantId;
+        this.productId = productId;
+        this.productName = productName;
+        this.size = size;
+        this.color = color;
+        this.stripes = stripes;
+        this.cells = new AtomicIntegerArray(stripes * PAD);
+    }
+
+    /**
+     * Spreads {@code units} evenly over the stripes and starts selling.
+     */
+    void open(int units) {
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PAD, units / stripes + (i < units % stripes ? 1 : 0));
+        }
+        state = State.OPEN;
+    }
+
+    /**
+     * Takes {@code quantity} units if the sale is open. The units are counted as in flight before the state is read,
+     * so {@code close()}, which sets CLOSING and then waits for in-flight units to settle, either sees this take and
+     * waits for it, or this take sees CLOSING and backs out.
+     */
+    Take tryTake(int quantity) {
+        inFlight.addAndGet(quantity);
+        if (state != State.OPEN) {
+            inFlight.addAndGet(-quantity);
+            return Take.CLOSED;
+        }
+        int home = homeStripe();
+        int taken = 0;
+        for (int i = 0; i < stripes && taken < quantity; i++) {
+            int cell = ((home + i) % stripes) * PAD;
+            int current;
+            do {
+                current = cells.get(cell);
+                if (current == 0) {
+                    break;
+                }
+            } while (!cells.compareAndSet(cell, current, current - Math.min(current, quantity - taken)));
+            if (current != 0) {
+                taken += Math.min(current, quantity - taken);
+            }
+        }
+        if (taken < quantity) {
+            // Not enough across all stripes: hand back the partial take
+            give(taken);
+            inFlight.addAndGet(-quantity);
+            return Take.SHORT;
+        }
+        return Take.TAKEN;
+    }
+
+    void give(int quantity) {
+        if (quantity > 0) {
+            cells.addAndGet(homeStripe() * PAD, quantity);
+        }
+    }
+
+    /**
+     * Called once the checkout that took {@code quantity} units has committed or rolled back.
+     */
+    void settle(int quantity) {
+        inFlight.addAndGet(-quantity);
+    }
+
+    int available() {
+        int sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PAD);
+        }
+        return sum;
+    }
+
+    StockShortfall shortfall(int requested) {
+        return new StockShortfall(variantId, productId, productName, size, color, requested, available());
+    }
+
+    private int homeStripe() {
+        // Fibonacci hashing spreads sequential thread ids over the stripes
+        long mixed = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) Long.remainderUnsigned(mixed >>> 16, stripes);
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,152 @@
+package com.fashionapp.resale_backend.product.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: quoted fields, doubled quotes and line breaks inside quotes.
+ * Holds one record in memory at a time, of at most {@code maxRecordChars} characters and {@code maxFields} fields:
+ * a bigger record is read to its end without being kept and reported as malformed, as is a quote left open at the
+ * end of the input.
+ */
+class CsvRecordReader {
+
+    private final Reader reader;
+    private final int maxRecordChars;
+    private final int maxFields;
+    private long line = 1;
+    private long recordStartLine;
+    private int pushedBack = -2;
+
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private int recordChars;
+    private boolean oversized;
+
+    CsvRecordReader(Reader reader, int maxRecordChars, int maxFields) {
+        this.reader = reader;
+        this.maxRecordChars = maxRecordChars;
+        this.maxFields = maxFields;
+    }
+
+    /**
+     * Line on which the record last returned by {@link #next()} started.
+     */
+    long recordStartLine() {
+        return recordStartLine;
+    }
+
+    /**
+     * Returns the next record's fields, or null at end of input. Blank lines are skipped.
+     *
+     * @throws IllegalArgumentException for a record over the limits or an unterminated quote; the record has been
+     *                                  consumed, so the next call continues after it
+     */
+    List<String> next() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        recordChars = 0;
+        oversized = false;
+        boolean inQuotes = false;
+        boolean sawAnything = false;
+        recordStartLine = line;
+
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                if (!sawAnything) {
+                    return null;
+                }
+                if (inQuotes) {
+                    throw new IllegalArgumentException("Quoted field is never closed");
+                }
+                return endRecord();
+            }
+            if (inQuotes) {
+                if (c == '"') {
+                    int peek = read();
+                    if (peek == '"') {
+                        append('"');
+                    } else {
+                        inQuotes = false;
+                        unread(peek);
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    append((char) c);
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    inQuotes = true;
+                    sawAnything = true;
+                }
+                case ',' -> {
+                    endField();
+                    sawAnything = true;
+                }
+                case '\r' -> {
+                    int peek = read();
+                    if (peek != '\n') unread(peek);
+                    line++;
+                    if (sawAnything) return endRecord();
+                    recordStartLine = line;
+                }
+                case '\n' -> {
+                    line++;
+                    if (sawAnything) return endRecord();
+                    recordStartLine = line;
+                }
+                default -> {
+                    append((char) c);
+                    sawAnything = true;
+                }
+            }
+        }
+    }
+
+    private void append(char c) {
+        if (++recordChars > maxRecordChars) {
+            oversized = true;
+        }
+        if (!oversized) {
+            field.append(c);
+        }
+    }
+
+    private void endField() {
+        if (fields.size() >= maxFields) {
+            oversized = true;
+        }
+        if (!oversized) {
+            fields.add(field.toString());
+        }
+        field.setLength(0);
+    }
+
+    private List<String> endRecord() {
+        endField();
+        if (oversized) {
+            fields.clear();
+            throw new IllegalArgumentException("Record is over " + maxRecordChars + " characters or "
+                    + maxFields + " fields");
+        }
+        return new ArrayList<>(fields);
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
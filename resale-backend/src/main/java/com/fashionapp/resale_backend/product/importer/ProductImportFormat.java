@@ -0,0 +1,23 @@
+package com.fashionapp.resale_backend.product.importer;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public enum ProductImportFormat {
+    NDJSON, // one ProductCreateDto JSON object per line
+    CSV;    // header row + name,description,basePrice,brand,condition,categoryId,variants
+
+    public static ProductImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            String type = contentType.toLowerCase();
+            if (type.startsWith("application/x-ndjson")) {
+                return NDJSON;
+            }
+            if (type.startsWith("text/csv")) {
+                return CSV;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                "Import expects application/x-ndjson or text/csv, got: " + contentType);
+    }
+}
@@ -0,0 +1,359 @@
+package com.fashionapp.resale_backend.product.importer;
+
+import com.fashionapp.resale_backend.product.CategorySnapshot;
+import com.fashionapp.resale_backend.product.CategorySnapshotService;
+import com.fashionapp.resale_backend.product.ProductChangedEvent;
+import com.fashionapp.resale_backend.product.dto.ProductCreateDto;
+import com.fashionapp.resale_backend.product.dto.ProductImportErrorDto;
+import com.fashionapp.resale_backend.product.dto.ProductImportResultDto;
+import com.fashionapp.resale_backend.product.dto.ProductVariantDto;
+import com.fashionapp.resale_backend.user.User;
+import com.fashionapp.resale_backend.user.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk listing import for large resellers. The upload is read as a stream, validated row by row
+ * against the category snapshot, and written in JDBC batches — one transaction per batch — so memory
+ * stays flat whatever the file size and one bad row never aborts the rest of the file. A row (NDJSON line or CSV
+ * record) over {@code MAX_ROW_CHARS} is skipped without being held in memory and reported like any other bad row.
+ *
+ * <p>CSV columns (header required, order free): {@code name, description, basePrice, brand, condition,
+ * categoryId, variants}, where variants is {@code size:color:stock} entries joined by {@code |},
+ * e.g. {@code M:Black:3|L:Black:1}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 200;
+    private static final int MAX_ROW_CHARS = 64 * 1024;
+    private static final int MAX_CSV_FIELDS = 64;
+
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO products (name, description, base_price, brand, condition, seller_id, category_id, " +
+            "created_at, updated_at, status, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 'ACTIVE', 0)";
+    private static final String INSERT_VARIANT =
+            "INSERT INTO product_variants (product_id, size, color, stock_quantity) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CategorySnapshotService categorySnapshotService;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    public ProductImportResultDto importProducts(InputStream body, ProductImportFormat format) throws IOException {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User seller = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Authenticated user not found"));
+
+        ImportRun run = new ImportRun(seller.getId(), categorySnapshotService.current());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            switch (format) {
+                case NDJSON -> readNdjson(reader, run);
+                case CSV -> readCsv(reader, run);
+            }
+        }
+        run.flush();
+
+        log.info("Import by seller {}: {} imported, {} failed", seller.getId(), run.imported, run.failed);
+        return new ProductImportResultDto(run.imported, run.failed, run.errors, run.failed > run.errors.size());
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        NdjsonLine line;
+        long lineNumber = 0;
+        while ((line = readLine(reader)) != null) {
+            lineNumber++;
+            if (line.tooLong()) {
+                run.reject(lineNumber, "Line is over " + MAX_ROW_CHARS + " characters");
+                continue;
+            }
+            if (line.text().isBlank()) {
+                continue;
+            }
+            try {
+                run.accept(lineNumber, objectMapper.readValue(line.text(), ProductCreateDto.class));
+            } catch (JsonProcessingException e) {
+                run.reject(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private record NdjsonLine(String text, boolean tooLong) {}
+
+    // readLine() that keeps at most MAX_ROW_CHARS of a line; the rest of a longer one is read past and dropped
+    private static NdjsonLine readLine(BufferedReader reader) throws IOException {
+        StringBuilder line = new StringBuilder();
+        boolean dropped = false;
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if (line.length() <= MAX_ROW_CHARS) {
+                line.append((char) c);
+            } else {
+                dropped = true;
+            }
+        }
+        if (c == -1 && line.isEmpty()) {
+            return null;
+        }
+        if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+        return new NdjsonLine(line.toString(), dropped || line.length() > MAX_ROW_CHARS);
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader, MAX_ROW_CHARS, MAX_CSV_FIELDS);
+        List<String> header;
+        try {
+            header = csv.next();
+        } catch (IllegalArgumentException e) {
+            run.reject(csv.recordStartLine(), "Header: " + e.getMessage());
+            return;
+        }
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "baseprice", "categoryid")) {
+            if (!columns.containsKey(required)) {
+                run.reject(csv.recordStartLine(), "Missing required column: " + required);
+                return;
+            }
+        }
+
+        while (true) {
+            try {
+                List<String> record = csv.next();
+                if (record == null) {
+                    return;
+                }
+                run.accept(csv.recordStartLine(), toDto(record, columns));
+            } catch (IllegalArgumentException e) {
+                // Malformed record or bad values; next() has already moved past it
+                run.reject(csv.recordStartLine(), e.getMessage());
+            }
+        }
+    }
+
+    private static ProductCreateDto toDto(List<String> record, Map<String, Integer> columns) {
+        ProductCreateDto dto = new ProductCreateDto();
+        dto.setName(column(record, columns, "name"));
+        dto.setDescription(column(record, columns, "description"));
+        dto.setBrand(column(record, columns, "brand"));
+        dto.setCondition(column(record, columns, "condition"));
+
+        String price = column(record, columns, "baseprice");
+        String category = column(record, columns, "categoryid");
+        try {
+            dto.setBasePrice(price != null ? Double.parseDouble(price) : null);
+            dto.setCategoryId(category != null ? Long.parseLong(category) : null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("basePrice and categoryId must be numbers");
+        }
+
+        String variants = column(record, columns, "variants");
+        List<ProductVariantDto> parsed = new ArrayList<>();
+        if (variants != null) {
+            for (String entry : variants.split("\\|")) {
+                String[] parts = entry.split(":", -1);
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Variant must be size:color:stock, got: " + entry);
+                }
+                ProductVariantDto variant = new ProductVariantDto();
+                variant.setSize(emptyToNull(parts[0]));
+                variant.setColor(emptyToNull(parts[1]));
+                try {
+                    variant.setStockQuantity(Integer.parseInt(parts[2].trim()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Variant stock must be a whole number, got: " + entry);
+                }
+                parsed.add(variant);
+            }
+        }
+        dto.setVariants(parsed);
+        return dto;
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < record.size() ? emptyToNull(record.get(index)) : null;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private record PendingRow(long line, ProductCreateDto dto) {}
+
+    /**
+     * State of one upload: the current batch (at most BATCH_SIZE rows) plus counters and the capped error list.
+     */
+    private class ImportRun {
+        private final Long sellerId;
+        private final CategorySnapshot categories;
+        private final List<PendingRow> pending = new ArrayList<>(BATCH_SIZE);
+        private final List<ProductImportErrorDto> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        ImportRun(Long sellerId, CategorySnapshot categories) {
+            this.sellerId = sellerId;
+            this.categories = categories;
+        }
+
+        void accept(long line, ProductCreateDto dto) {
+            String problem = validate(dto);
+            if (problem != null) {
+                reject(line, problem);
+                return;
+            }
+            pending.add(new PendingRow(line, dto));
+            if (pending.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProductImportErrorDto(line, message));
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertBatch(pending));
+                imported += pending.size();
+            } catch (DataAccessException e) {
+                // One bad row rolls back the whole batch: retry row by row to import the rest and report only it
+                log.warn("Import batch starting at line {} failed, retrying its rows one by one: {}",
+                        pending.get(0).line(), e.getMostSpecificCause().getMessage());
+                pending.forEach(this::insertAlone);
+            }
+            pending.clear();
+        }
+
+        private void insertAlone(PendingRow row) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertBatch(List.of(row)));
+                imported++;
+            } catch (DataAccessException e) {
+                reject(row.line(), "Rejected by database: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+
+        private String validate(ProductCreateDto dto) {
+            if (dto.getName() == null || dto.getName().isBlank()) {
+                return "name is required";
+            }
+            if (dto.getName().length() > 255) {
+                return "name is longer than 255 characters";
+            }
+            if (dto.getDescription() != null && dto.getDescription().length() > 1000) {
+                return "description is longer than 1000 characters";
+            }
+            if (dto.getBasePrice() == null || dto.getBasePrice() < 0 || dto.getBasePrice().isNaN()) {
+                return "basePrice must be a non-negative number";
+            }
+            if (dto.getCategoryId() == null || categories.getNode(dto.getCategoryId()) == null) {
+                return "Unknown categoryId: " + dto.getCategoryId();
+            }
+            if (dto.getVariants() != null) {
+                for (ProductVariantDto v : dto.getVariants()) {
+                    if (v.getStockQuantity() == null || v.getStockQuantity() < 0) {
+                        return "Variant stockQuantity must be zero or more";
+                    }
+                }
+            }
+            return null;
+        }
+
+        private void insertBatch(List<PendingRow> rows) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+            // 1. Products, with their generated ids returned from the same batch
+            GeneratedKeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_PRODUCT, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ProductCreateDto dto = rows.get(i).dto();
+                            ps.setString(1, dto.getName().trim());
+                            ps.setString(2, dto.getDescription());
+                            ps.setDouble(3, dto.getBasePrice());
+                            ps.setString(4, dto.getBrand());
+                            ps.setString(5, dto.getCondition());
+                            ps.setLong(6, sellerId);
+                            ps.setLong(7, dto.getCategoryId());
+                            ps.setTimestamp(8, now);
+                            ps.setTimestamp(9, now);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return rows.size();
+                        }
+                    }, keys);
+
+            List<Long> productIds = keys.getKeyList().stream()
+                    .map(k -> ((Number) k.get("id")).longValue())
+                    .toList();
+
+            // 2. Variants for the whole batch in one more round of batched inserts
+            List<Object[]> variants = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                List<ProductVariantDto> dtoVariants = rows.get(i).dto().getVariants();
+                if (dtoVariants == null) {
+                    continue;
+                }
+                for (ProductVariantDto v : dtoVariants) {
+                    variants.add(new Object[]{productIds.get(i), v.getSize(), v.getColor(), v.getStockQuantity()});
+                }
+            }
+            if (!variants.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_VARIANT, variants,
+                        new int[]{Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.INTEGER});
+            }
+
+            // 3. One event per batch: the listing row is written in this transaction, indexes follow after commit
+            eventPublisher.publishEvent(ProductChangedEvent.of(productIds));
+        }
+    }
+}
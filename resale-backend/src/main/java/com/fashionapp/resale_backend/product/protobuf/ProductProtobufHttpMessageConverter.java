@@ -0,0 +1,113 @@
+package com.fashionapp.resale_backend.product.protobuf;
+
+import com.fashionapp.resale_backend.product.dto.CursorPageDto;
+import com.fashionapp.resale_backend.product.dto.ProductCardDto;
+import com.fashionapp.resale_backend.product.dto.ProductResponseDto;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes product responses as protobuf for clients that send {@code Accept: application/x-protobuf}.
+ * Response-only: request bodies stay JSON. Any other response type is left to the Jackson converters,
+ * so asking for protobuf on an endpoint without a schema gets a 406.
+ */
+@SuppressWarnings("unchecked")
+public class ProductProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.parseMediaType("application/x-protobuf");
+
+    public ProductProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    // Candidate containers only; the element type is checked by canWrite(Type, ...), which MVC consults first
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ProductResponseDto.class.isAssignableFrom(clazz) || List.class.isAssignableFrom(clazz)
+                || Page.class.isAssignableFrom(clazz) || CursorPageDto.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        ResolvableType declared = type != null ? ResolvableType.forType(type) : ResolvableType.NONE;
+        // ResponseEntity<?> declares nothing useful, so fall back to the runtime class
+        ResolvableType resolved = declared.resolve(Object.class) != Object.class ? declared : ResolvableType.forClass(clazz);
+        return canWrite(mediaType) && supports(resolved);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(encode(body));
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    // Generic arguments are unknown for ResponseEntity<?> returns, so pages are accepted here and checked on write
+    private static boolean supports(ResolvableType type) {
+        Class<?> raw = type.resolve(Object.class);
+        if (ProductResponseDto.class.isAssignableFrom(raw)) {
+            return true;
+        }
+        Class<?> element = type.getGeneric(0).resolve();
+        if (List.class.isAssignableFrom(raw)) {
+            return element == ProductResponseDto.class;
+        }
+        if (Page.class.isAssignableFrom(raw) || CursorPageDto.class.isAssignableFrom(raw)) {
+            return element == null || element == ProductCardDto.class;
+        }
+        return false;
+    }
+
+    private static byte[] encode(Object body) {
+        if (body instanceof ProductResponseDto dto) {
+            return ProductProtobufWriter.product(dto);
+        }
+        if (body instanceof List<?> list && allOf(list, ProductResponseDto.class)) {
+            return ProductProtobufWriter.productList((List<ProductResponseDto>) list);
+        }
+        if (body instanceof Page<?> page && allOf(page.getContent(), ProductCardDto.class)) {
+            return ProductProtobufWriter.cardPage((Page<ProductCardDto>) page);
+        }
+        if (body instanceof CursorPageDto<?> slice && allOf(slice.content(), ProductCardDto.class)) {
+            return ProductProtobufWriter.cardSlice((CursorPageDto<ProductCardDto>) slice);
+        }
+        throw new HttpMessageNotWritableException("No protobuf schema for " + body.getClass().getSimpleName());
+    }
+
+    private static boolean allOf(List<?> items, Class<?> type) {
+        for (Object item : items) {
+            if (!type.isInstance(item)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,263 @@
+package com.fashionapp.resale_backend.product.protobuf;
+
+import com.fashionapp.resale_backend.product.dto.CursorPageDto;
+import com.fashionapp.resale_backend.product.dto.ProductCardDto;
+import com.fashionapp.resale_backend.product.dto.ProductImageDto;
+import com.fashionapp.resale_backend.product.dto.ProductResponseDto;
+import com.fashionapp.resale_backend.product.dto.ProductVariantDto;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static com.google.protobuf.CodedOutputStream.computeBoolSize;
+import static com.google.protobuf.CodedOutputStream.computeDoubleSize;
+import static com.google.protobuf.CodedOutputStream.computeInt32Size;
+import static com.google.protobuf.CodedOutputStream.computeInt64Size;
+import static com.google.protobuf.CodedOutputStream.computeStringSize;
+import static com.google.protobuf.CodedOutputStream.computeTagSize;
+import static com.google.protobuf.CodedOutputStream.computeUInt32SizeNoTag;
+
+/**
+ * Encodes product DTOs as the messages declared in {@code src/main/proto/product.proto}.
+ * Written against the wire format directly rather than generated classes, so the build needs no protoc step;
+ * the field numbers here must match the schema. Null and empty values are omitted, as proto3 does.
+ * Each message's size is computed first so the whole response is encoded into one exact-size array.
+ */
+public final class ProductProtobufWriter {
+
+    private ProductProtobufWriter() {}
+
+    private interface Body {
+        void writeTo(CodedOutputStream out) throws IOException;
+    }
+
+    public static byte[] product(ProductResponseDto dto) {
+        return encode(productSize(dto), out -> writeProduct(out, dto));
+    }
+
+    public static byte[] productList(List<ProductResponseDto> products) {
+        int size = 0;
+        for (ProductResponseDto dto : products) {
+            size += nestedSize(1, productSize(dto));
+        }
+        return encode(size, out -> {
+            for (ProductResponseDto dto : products) {
+                writeNested(out, 1, productSize(dto));
+                writeProduct(out, dto);
+            }
+        });
+    }
+
+    public static byte[] cardPage(Page<ProductCardDto> page) {
+        int size = cardsSize(page.getContent()) + int32Size(2, page.getNumber()) + int32Size(3, page.getSize())
+                + int64Size(4, page.getTotalElements()) + int32Size(5, page.getTotalPages()) + boolSize(7, page.hasNext());
+        return encode(size, out -> {
+            writeCards(out, page.getContent());
+            writeInt32(out, 2, page.getNumber());
+            writeInt32(out, 3, page.getSize());
+            writeInt64(out, 4, page.getTotalElements());
+            writeInt32(out, 5, page.getTotalPages());
+            writeBool(out, 7, page.hasNext());
+        });
+    }
+
+    public static byte[] cardSlice(CursorPageDto<ProductCardDto> slice) {
+        int size = cardsSize(slice.content()) + int32Size(3, slice.content().size())
+                + int64Size(4, slice.approximateTotal()) + stringSize(6, slice.nextCursor()) + boolSize(7, slice.hasNext());
+        return encode(size, out -> {
+            writeCards(out, slice.content());
+            writeInt32(out, 3, slice.content().size());
+            writeInt64(out, 4, slice.approximateTotal());
+            writeString(out, 6, slice.nextCursor());
+            writeBool(out, 7, slice.hasNext());
+        });
+    }
+
+    // --- Product, ProductVariant, ProductImage ---
+
+    private static int productSize(ProductResponseDto dto) {
+        int size = int64Size(1, dto.getId()) + stringSize(2, dto.getName()) + stringSize(3, dto.getDescription())
+                + doubleSize(4, dto.getBasePrice()) + stringSize(5, dto.getBrand()) + stringSize(6, dto.getCondition())
+                + stringSize(7, dto.getCategoryName()) + stringSize(8, dto.getSellerShopName())
+                + stringSize(9, dto.getStatus());
+        if (dto.getVariants() != null) {
+            for (ProductVariantDto variant : dto.getVariants()) {
+                size += nestedSize(10, variantSize(variant));
+            }
+        }
+        if (dto.getImages() != null) {
+            for (ProductImageDto image : dto.getImages()) {
+                size += nestedSize(11, imageSize(image));
+            }
+        }
+        return size;
+    }
+
+    private static void writeProduct(CodedOutputStream out, ProductResponseDto dto) throws IOException {
+        writeInt64(out, 1, dto.getId());
+        writeString(out, 2, dto.getName());
+        writeString(out, 3, dto.getDescription());
+        writeDouble(out, 4, dto.getBasePrice());
+        writeString(out, 5, dto.getBrand());
+        writeString(out, 6, dto.getCondition());
+        writeString(out, 7, dto.getCategoryName());
+        writeString(out, 8, dto.getSellerShopName());
+        writeString(out, 9, dto.getStatus());
+        if (dto.getVariants() != null) {
+            for (ProductVariantDto variant : dto.getVariants()) {
+                writeNested(out, 10, variantSize(variant));
+                writeInt64(out, 1, variant.getId());
+                writeString(out, 2, variant.getSize());
+                writeString(out, 3, variant.getColor());
+                writeOptionalInt32(out, 4, variant.getStockQuantity());
+            }
+        }
+        if (dto.getImages() != null) {
+            for (ProductImageDto image : dto.getImages()) {
+                writeNested(out, 11, imageSize(image));
+                writeInt64(out, 1, image.getId());
+                writeString(out, 2, image.getUrl());
+                writeString(out, 3, image.getGcsUri());
+            }
+        }
+    }
+
+    private static int variantSize(ProductVariantDto variant) {
+        return int64Size(1, variant.getId()) + stringSize(2, variant.getSize()) + stringSize(3, variant.getColor())
+                + optionalInt32Size(4, variant.getStockQuantity());
+    }
+
+    private static int imageSize(ProductImageDto image) {
+        return int64Size(1, image.getId()) + stringSize(2, image.getUrl()) + stringSize(3, image.getGcsUri());
+    }
+
+    // --- ProductCard ---
+
+    private static int cardsSize(List<ProductCardDto> cards) {
+        int size = 0;
+        for (ProductCardDto card : cards) {
+            size += nestedSize(1, cardSize(card));
+        }
+        return size;
+    }
+
+    private static void writeCards(CodedOutputStream out, List<ProductCardDto> cards) throws IOException {
+        for (ProductCardDto card : cards) {
+            writeNested(out, 1, cardSize(card));
+            writeInt64(out, 1, card.id());
+            writeString(out, 2, card.name());
+            writeString(out, 3, card.brand());
+            writeString(out, 4, card.condition());
+            writeDouble(out, 5, card.basePrice());
+            writeString(out, 6, card.mainImageUrl());
+            writeString(out, 7, card.sellerShopName());
+            if (card.sizes() != null) {
+                for (String size : card.sizes()) {
+                    out.writeString(8, size);
+                }
+            }
+            writeBool(out, 9, card.inStock());
+        }
+    }
+
+    private static int cardSize(ProductCardDto card) {
+        int size = int64Size(1, card.id()) + stringSize(2, card.name()) + stringSize(3, card.brand())
+                + stringSize(4, card.condition()) + doubleSize(5, card.basePrice()) + stringSize(6, card.mainImageUrl())
+                + stringSize(7, card.sellerShopName()) + boolSize(9, card.inStock());
+        if (card.sizes() != null) {
+            for (String s : card.sizes()) {
+                size += computeStringSize(8, s);
+            }
+        }
+        return size;
+    }
+
+    // --- Field helpers: the size and write functions skip exactly the same values ---
+
+    private static byte[] encode(int size, Body body) {
+        byte[] bytes = new byte[size];
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        try {
+            body.writeTo(out);
+            out.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes;
+    }
+
+    private static int nestedSize(int field, int messageSize) {
+        return computeTagSize(field) + computeUInt32SizeNoTag(messageSize) + messageSize;
+    }
+
+    private static void writeNested(CodedOutputStream out, int field, int messageSize) throws IOException {
+        out.writeTag(field, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(messageSize);
+    }
+
+    private static int stringSize(int field, String value) {
+        return value != null && !value.isEmpty() ? computeStringSize(field, value) : 0;
+    }
+
+    private static void writeString(CodedOutputStream out, int field, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            out.writeString(field, value);
+        }
+    }
+
+    private static int int64Size(int field, Long value) {
+        return value != null && value != 0 ? computeInt64Size(field, value) : 0;
+    }
+
+    private static void writeInt64(CodedOutputStream out, int field, Long value) throws IOException {
+        if (value != null && value != 0) {
+            out.writeInt64(field, value);
+        }
+    }
+
+    private static int int32Size(int field, int value) {
+        return value != 0 ? computeInt32Size(field, value) : 0;
+    }
+
+    private static void writeInt32(CodedOutputStream out, int field, int value) throws IOException {
+        if (value != 0) {
+            out.writeInt32(field, value);
+        }
+    }
+
+    // optional fields: presence matters, so zero is still written and only null is skipped
+
+    private static int optionalInt32Size(int field, Integer value) {
+        return value != null ? computeInt32Size(field, value) : 0;
+    }
+
+    private static void writeOptionalInt32(CodedOutputStream out, int field, Integer value) throws IOException {
+        if (value != null) {
+            out.writeInt32(field, value);
+        }
+    }
+
+    private static int doubleSize(int field, Double value) {
+        return value != null ? computeDoubleSize(field, value) : 0;
+    }
+
+    private static void writeDouble(CodedOutputStream out, int field, Double value) throws IOException {
+        if (value != null) {
+            out.writeDouble(field, value);
+        }
+    }
+
+    private static int boolSize(int field, boolean value) {
+        return value ? computeBoolSize(field, true) : 0;
+    }
+
+    private static void writeBool(CodedOutputStream out, int field, boolean value) throws IOException {
+        if (value) {
+            out.writeBool(field, true);
+        }
+    }
+}
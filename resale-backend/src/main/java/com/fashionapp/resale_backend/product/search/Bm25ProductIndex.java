@@ -0,0 +1,196 @@
+package com.fashionapp.resale_backend.product.search;
+
+import com.fashionapp.resale_backend.common.utils.SearchTextUtil;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over product name, brand, category name and description, scored with BM25.
+ * Each field contributes a weighted term frequency, so a hit in the name outranks a hit in the description.
+ * Reads run concurrently; single-document updates take the write lock briefly.
+ */
+public class Bm25ProductIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float BRAND_WEIGHT = 2.0f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    // The last query token is also matched as a prefix (search-as-you-type), capped to keep queries cheap
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final double PREFIX_MATCH_FACTOR = 0.8;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, IndexedDocument> documents = new HashMap<>();
+    private double totalLength;
+
+    private record IndexedDocument(Map<String, Float> termFrequencies, float length,
+                                   Long categoryId, Double basePrice, boolean active) {}
+
+    private record ScoredHit(Long id, double score) {}
+
+    public void upsert(ProductSearchDocument doc) {
+        Map<String, Float> tf = new HashMap<>();
+        addField(tf, doc.name(), NAME_WEIGHT);
+        addField(tf, doc.brand(), BRAND_WEIGHT);
+        addField(tf, doc.categoryName(), CATEGORY_WEIGHT);
+        addField(tf, doc.description(), DESCRIPTION_WEIGHT);
+
+        float length = 0;
+        for (float f : tf.values()) {
+            length += f;
+        }
+        IndexedDocument indexed = new IndexedDocument(tf, length, doc.categoryId(), doc.basePrice(),
+                "ACTIVE".equals(doc.status()));
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(doc.id());
+            documents.put(doc.id(), indexed);
+            totalLength += length;
+            tf.forEach((term, freq) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(doc.id(), freq));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Conjunctive query: every token must match (exactly, or as a prefix for the last token).
+     * Returns all matching ACTIVE ids that pass the filters, best score first.
+     */
+    public List<Long> search(ProductSearchCriteria criteria) {
+        List<String> tokens = SearchTextUtil.tokenize(criteria.text());
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int docCount = documents.size();
+            if (docCount == 0) {
+                return List.of();
+            }
+            double avgLength = totalLength / docCount;
+
+            Map<Long, Double> scores = new HashMap<>();
+            Map<Long, Integer> matchedTokens = new HashMap<>();
+
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                boolean isLast = i == tokens.size() - 1;
+                // Per-document best contribution for this token, so prefix expansions don't stack
+                Map<Long, Double> tokenScores = new HashMap<>();
+
+                scoreTerm(token, 1.0, docCount, avgLength, tokenScores);
+                if (isLast) {
+                    int expansions = 0;
+                    for (String term : postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                        if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                        scoreTerm(term, PREFIX_MATCH_FACTOR, docCount, avgLength, tokenScores);
+                    }
+                }
+
+                tokenScores.forEach((id, score) -> {
+                    scores.merge(id, score, Double::sum);
+                    matchedTokens.merge(id, 1, Integer::sum);
+                });
+            }
+
+            List<ScoredHit> hits = new ArrayList<>();
+            scores.forEach((id, score) -> {
+                if (matchedTokens.get(id) == tokens.size() && matchesFilters(documents.get(id), criteria)) {
+                    hits.add(new ScoredHit(id, score));
+                }
+            });
+            // Ties go to the newest listing (ids are assigned in creation order)
+            hits.sort(Comparator.comparingDouble(ScoredHit::score).reversed()
+                    .thenComparing(ScoredHit::id, Comparator.reverseOrder()));
+
+            return hits.stream().map(ScoredHit::id).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void scoreTerm(String term, double factor, int docCount, double avgLength, Map<Long, Double> into) {
+        Map<Long, Float> posting = postings.get(term);
+        if (posting == null) {
+            return;
+        }
+        int df = posting.size();
+        double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+        posting.forEach((id, tf) -> {
+            float length = documents.get(id).length();
+            double norm = tf + K1 * (1 - B + B * length / avgLength);
+            double score = factor * idf * (tf * (K1 + 1)) / norm;
+            into.merge(id, score, Math::max);
+        });
+    }
+
+    private boolean matchesFilters(IndexedDocument doc, ProductSearchCriteria criteria) {
+        if (!doc.active()) {
+            return false;
+        }
+        if (criteria.categoryIds() != null && !criteria.categoryIds().contains(doc.categoryId())) {
+            return false;
+        }
+        if (criteria.minPrice() != null && (doc.basePrice() == null || doc.basePrice() < criteria.minPrice())) {
+            return false;
+        }
+        return criteria.maxPrice() == null || (doc.basePrice() != null && doc.basePrice() <= criteria.maxPrice());
+    }
+
+    private void removeInternal(Long productId) {
+        IndexedDocument existing = documents.remove(productId);
+        if (existing == null) {
+            return;
+        }
+        totalLength -= existing.length();
+        for (String term : existing.termFrequencies().keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addField(Map<String, Float> tf, String text, float weight) {
+        for (String token : SearchTextUtil.tokenize(text)) {
+            tf.merge(token, weight, Float::sum);
+        }
+    }
+}
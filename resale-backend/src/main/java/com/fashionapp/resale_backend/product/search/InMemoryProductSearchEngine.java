@@ -0,0 +1,116 @@
+package com.fashionapp.resale_backend.product.search;
+
+import com.fashionapp.resale_backend.product.ProductChangedEvent;
+import com.fashionapp.resale_backend.product.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * BM25 search served from an in-process inverted index (app.search.engine=memory).
+ * The index is built in full at startup and on a nightly schedule, and kept current in between
+ * from {@link ProductChangedEvent}s once the writing transaction has committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory")
+public class InMemoryProductSearchEngine implements ProductSearchEngine {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final ProductRepository productRepository;
+
+    private volatile Bm25ProductIndex index = new Bm25ProductIndex();
+
+    // Ids touched while a full rebuild is running; replayed onto the fresh index before it is swapped in
+    private volatile Set<Long> changedDuringRebuild;
+
+    // Held from reading rows to applying them, so an older read can never land after a newer one
+    private final Object reindexLock = new Object();
+
+    @Override
+    public Page<Long> search(ProductSearchCriteria criteria, Pageable pageable) {
+        List<Long> hits = index.search(criteria);
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        int to = Math.min(from + pageable.getPageSize(), hits.size());
+        return new PageImpl<>(hits.subList(from, to), pageable, hits.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${app.search.rebuild-cron:0 0 4 * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+        Bm25ProductIndex fresh = new Bm25ProductIndex();
+        Pageable page = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+        Slice<ProductSearchDocument> slice;
+        do {
+            slice = productRepository.findSearchDocuments(page);
+            slice.forEach(fresh::upsert);
+            page = slice.nextPageable();
+        } while (slice.hasNext());
+
+        // Swap first so later events land on the fresh index, then replay what arrived mid-rebuild
+        index = fresh;
+        Set<Long> pending = changedDuringRebuild;
+        changedDuringRebuild = null;
+        reindex(fresh, new HashSet<>(pending));
+
+        log.info("Search index rebuilt: {} products in {} ms", fresh.size(), System.currentTimeMillis() - started);
+    }
+
+    // Nothing indexed here depends on stock, so checkouts do not queue behind the reindex lock
+    @TransactionalEventListener(condition = "!#event.stockOnly()", fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Set<Long> pending = changedDuringRebuild;
+        if (pending != null) {
+            pending.addAll(event.productIds());
+        }
+        reindex(index, event.productIds());
+    }
+
+    private void reindex(Bm25ProductIndex target, Set<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        synchronized (reindexLock) {
+            apply(target, productIds);
+        }
+    }
+
+    private void apply(Bm25ProductIndex target, Set<Long> productIds) {
+        List<ProductSearchDocument> docs = productRepository.findSearchDocumentsByIdIn(productIds);
+        Set<Long> missing = new HashSet<>(productIds);
+        for (ProductSearchDocument doc : docs) {
+            target.upsert(doc);
+            missing.remove(doc.id());
+        }
+        missing.forEach(target::remove);
+    }
+}
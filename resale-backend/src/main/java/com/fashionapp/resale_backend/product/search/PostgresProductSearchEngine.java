@@ -0,0 +1,97 @@
+package com.fashionapp.resale_backend.product.search;
+
+import com.fashionapp.resale_backend.common.utils.SearchTextUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Database-side search (app.search.engine=postgres) for nodes that cannot afford the in-memory index.
+ * Matches against the generated search_vector column and ranks with ts_rank; when full-text finds nothing
+ * (typically a misspelling) it falls back to pg_trgm word similarity on name + brand.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres")
+public class PostgresProductSearchEngine implements ProductSearchEngine {
+
+    // Must stay textually identical to the expression index created by PostgresSearchSchemaInitializer
+    static final String TRIGRAM_DOCUMENT = "(f_unaccent(lower(coalesce(name, '') || ' ' || coalesce(brand, ''))))";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Page<Long> search(ProductSearchCriteria criteria, Pageable pageable) {
+        List<String> tokens = SearchTextUtil.tokenize(criteria.text());
+        if (tokens.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("tsquery", toPrefixTsQuery(tokens))
+                .addValue("text", String.join(" ", tokens))
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+        String filters = buildFilters(criteria, params);
+
+        String ftsWhere = " WHERE search_vector @@ to_tsquery('simple', :tsquery)" + filters;
+        long total = count(ftsWhere, params);
+        if (total > 0) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM products" + ftsWhere +
+                            " ORDER BY ts_rank(search_vector, to_tsquery('simple', :tsquery)) DESC, created_at DESC, id DESC" +
+                            " LIMIT :limit OFFSET :offset",
+                    params, Long.class);
+            return new PageImpl<>(ids, pageable, total);
+        }
+
+        String trigramWhere = " WHERE :text <% " + TRIGRAM_DOCUMENT + filters;
+        total = count(trigramWhere, params);
+        if (total == 0) {
+            return Page.empty(pageable);
+        }
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM products" + trigramWhere +
+                        " ORDER BY word_similarity(:text, " + TRIGRAM_DOCUMENT + ") DESC, created_at DESC, id DESC" +
+                        " LIMIT :limit OFFSET :offset",
+                params, Long.class);
+        return new PageImpl<>(ids, pageable, total);
+    }
+
+    private long count(String where, MapSqlParameterSource params) {
+        Long total = jdbcTemplate.queryForObject("SELECT count(*) FROM products" + where, params, Long.class);
+        return total != null ? total : 0;
+    }
+
+    private String buildFilters(ProductSearchCriteria criteria, MapSqlParameterSource params) {
+        StringBuilder sql = new StringBuilder(" AND status = 'ACTIVE'");
+        if (criteria.categoryIds() != null) {
+            sql.append(" AND category_id IN (:categoryIds)");
+            params.addValue("categoryIds", criteria.categoryIds());
+        }
+        if (criteria.minPrice() != null) {
+            sql.append(" AND base_price >= :minPrice");
+            params.addValue("minPrice", criteria.minPrice());
+        }
+        if (criteria.maxPrice() != null) {
+            sql.append(" AND base_price <= :maxPrice");
+            params.addValue("maxPrice", criteria.maxPrice());
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Tokens are already folded to letters/digits, so they are safe to splice into tsquery syntax.
+     * Every term is a prefix match so short, half-typed queries still hit.
+     */
+    private static String toPrefixTsQuery(List<String> tokens) {
+        return String.join(" & ", tokens.stream().map(t -> t + ":*").toList());
+    }
+}
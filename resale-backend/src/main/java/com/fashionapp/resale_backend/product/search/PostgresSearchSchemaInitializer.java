@@ -0,0 +1,53 @@
+package com.fashionapp.resale_backend.product.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the database objects used by {@link PostgresProductSearchEngine}.
+ * Hibernate's ddl-auto cannot express generated columns or GIN indexes, so they are applied here (idempotently).
+ * unaccent() is only STABLE, hence the IMMUTABLE wrapper required by the generated column and expression index.
+ */
+@Slf4j
+@Component
+@Order(0)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres")
+public class PostgresSearchSchemaInitializer implements ApplicationRunner {
+
+    private static final List<String> STATEMENTS = List.of(
+            "CREATE EXTENSION IF NOT EXISTS unaccent",
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            """
+            CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+                LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+                AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$
+            """,
+            """
+            ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+                setweight(to_tsvector('simple'::regconfig, f_unaccent(lower(coalesce(name, '')))), 'A') ||
+                setweight(to_tsvector('simple'::regconfig, f_unaccent(lower(coalesce(brand, '')))), 'B') ||
+                setweight(to_tsvector('simple'::regconfig, f_unaccent(lower(coalesce(description, '')))), 'C')
+            ) STORED
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_products_search_vector ON products USING GIN (search_vector)",
+            "CREATE INDEX IF NOT EXISTS idx_products_search_trgm ON products USING GIN ("
+                    + PostgresProductSearchEngine.TRIGRAM_DOCUMENT + " gin_trgm_ops)"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        STATEMENTS.forEach(jdbcTemplate::execute);
+        log.info("PostgreSQL full-text search schema is ready");
+    }
+}
@@ -0,0 +1,14 @@
+package com.fashionapp.resale_backend.product.search;
+
+import java.util.Set;
+
+/**
+ * Storefront filters handed to a {@link ProductSearchEngine}.
+ * categoryIds already contains the full subtree of the requested category (null = no filter).
+ */
+public record ProductSearchCriteria(
+        String text,
+        Set<Long> categoryIds,
+        Double minPrice,
+        Double maxPrice
+) {}
@@ -0,0 +1,16 @@
+package com.fashionapp.resale_backend.product.search;
+
+/**
+ * Flat projection of the fields the search index needs, loaded without touching
+ * the seller, variant or image associations.
+ */
+public record ProductSearchDocument(
+        Long id,
+        String name,
+        String brand,
+        String description,
+        String categoryName,
+        Long categoryId,
+        Double basePrice,
+        String status
+) {}
@@ -0,0 +1,18 @@
+package com.fashionapp.resale_backend.product.search;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Pluggable full-text engine behind {@code /api/products?search=}.
+ * Selected with {@code app.search.engine}; when no engine bean is active the storefront
+ * falls back to the SQL LIKE filter in ProductService.
+ */
+public interface ProductSearchEngine {
+
+    /**
+     * Returns ACTIVE product ids matching the criteria, best match first.
+     * The sort of the given pageable is ignored: results are ordered by relevance.
+     */
+    Page<Long> search(ProductSearchCriteria criteria, Pageable pageable);
+}
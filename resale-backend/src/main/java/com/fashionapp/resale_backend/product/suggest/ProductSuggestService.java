@@ -0,0 +1,101 @@
+package com.fashionapp.resale_backend.product.suggest;
+
+import com.fashionapp.resale_backend.product.ProductChangedEvent;
+import com.fashionapp.resale_backend.product.ProductRepository;
+import com.fashionapp.resale_backend.product.dto.SuggestionDto;
+import com.fashionapp.resale_backend.product.search.ProductSearchDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Search-box autocomplete served entirely from memory. Each ACTIVE listing contributes one unit of weight
+ * to its name, its brand and its category name, so phrases shared by many listings rank first.
+ * The contribution of every listing is remembered, which lets a change be applied as "remove old, add new".
+ */
+@Slf4j
+@Service
+public class ProductSuggestService {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int MAX_LIMIT = 20;
+
+    private record Contribution(String name, String brand, String categoryName) {}
+
+    private final ProductRepository productRepository;
+    private final SuggestionTrie trie = new SuggestionTrie();
+    private final Map<Long, Contribution> contributions = new ConcurrentHashMap<>();
+
+    public ProductSuggestService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    public List<SuggestionDto> suggest(String query, int limit) {
+        int capped = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return trie.suggest(query, capped).stream()
+                .map(s -> new SuggestionDto(s.text(), s.type().name(), s.weight()))
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void onStartup() {
+        long started = System.currentTimeMillis();
+        trie.clear();
+        contributions.clear();
+
+        Pageable page = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+        Slice<ProductSearchDocument> slice;
+        do {
+            slice = productRepository.findSearchDocuments(page);
+            slice.forEach(this::apply);
+            page = slice.nextPageable();
+        } while (slice.hasNext());
+
+        log.info("Suggestion trie built: {} phrases from {} listings in {} ms",
+                trie.size(), contributions.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        Set<Long> missing = new HashSet<>(event.productIds());
+        for (ProductSearchDocument doc : productRepository.findSearchDocumentsByIdIn(event.productIds())) {
+            apply(doc);
+            missing.remove(doc.id());
+        }
+        missing.forEach(id -> replace(id, null));
+    }
+
+    private void apply(ProductSearchDocument doc) {
+        replace(doc.id(), "ACTIVE".equals(doc.status())
+                ? new Contribution(doc.name(), doc.brand(), doc.categoryName())
+                : null);
+    }
+
+    private void replace(Long productId, Contribution next) {
+        Contribution previous = next != null ? contributions.put(productId, next) : contributions.remove(productId);
+        if (previous != null) {
+            adjust(previous, -1);
+        }
+        if (next != null) {
+            adjust(next, 1);
+        }
+    }
+
+    private void adjust(Contribution c, int delta) {
+        if (c.name() != null) trie.adjust(SuggestionType.PRODUCT, c.name(), delta);
+        if (c.brand() != null) trie.adjust(SuggestionType.BRAND, c.brand(), delta);
+        if (c.categoryName() != null) trie.adjust(SuggestionType.CATEGORY, c.categoryName(), delta);
+    }
+}
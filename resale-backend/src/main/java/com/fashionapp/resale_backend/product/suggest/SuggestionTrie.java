@@ -0,0 +1,265 @@
+package com.fashionapp.resale_backend.product.suggest;
+
+import com.fashionapp.resale_backend.common.utils.SearchTextUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie over folded suggestion phrases (product names, brands, category names).
+ * Every node caches the top-K phrases of its subtree by weight, so a prefix lookup is a walk of
+ * |prefix| nodes plus a copy of K entries. Phrases are also reachable from each of their first few
+ * word starts, so "thun" finds "Ao thun nam". Weights are reference counts (how many active listings
+ * use the phrase) and are adjusted incrementally; only the nodes on the affected paths are recomputed.
+ */
+public class SuggestionTrie {
+
+    static final int TOP_K = 10;
+    private static final int MAX_WORD_STARTS = 4;
+    private static final int MIN_FUZZY_LENGTH = 3;
+
+    public record Suggestion(String text, SuggestionType type, int weight) {}
+
+    private static final class Entry {
+        final SuggestionType type;
+        final String key;
+        String label;
+        int weight;
+
+        Entry(SuggestionType type, String key, String label) {
+            this.type = type;
+            this.key = key;
+            this.label = label;
+        }
+    }
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>(4);
+        final List<Entry> terminals = new ArrayList<>(1);
+        Entry[] top = new Entry[0];
+    }
+
+    private static final Comparator<Entry> BY_WEIGHT = Comparator.<Entry>comparingInt(e -> e.weight).reversed()
+            .thenComparing(e -> e.key);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Adds {@code delta} (positive or negative) to the weight of a phrase; a phrase whose weight drops to zero is removed.
+     */
+    public void adjust(SuggestionType type, String text, int delta) {
+        String key = normalize(text);
+        if (key.isEmpty() || delta == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            String id = type + ":" + key;
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                if (delta < 0) {
+                    return;
+                }
+                entry = new Entry(type, key, text.trim());
+                entries.put(id, entry);
+                for (String path : paths(key)) {
+                    walkOrCreate(path).terminals.add(entry);
+                }
+            }
+            entry.weight += delta;
+
+            boolean removed = entry.weight <= 0;
+            if (removed) {
+                entries.remove(id);
+            }
+            for (String path : paths(key)) {
+                updatePath(path, entry, removed);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root.children.clear();
+            root.terminals.clear();
+            root.top = new Entry[0];
+            entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Exact prefix matches first, then (for prefixes of 3+ characters) phrases within one edit of the prefix,
+     * each group ordered by weight.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String q = normalize(prefix);
+        if (q.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Entry, Boolean> found = new LinkedHashMap<>();
+
+            Node node = walk(q);
+            if (node != null) {
+                for (Entry e : node.top) {
+                    found.putIfAbsent(e, Boolean.TRUE);
+                }
+            }
+
+            if (found.size() < limit && q.length() >= MIN_FUZZY_LENGTH) {
+                List<Entry> fuzzy = new ArrayList<>();
+                int[] firstRow = new int[q.length() + 1];
+                for (int i = 0; i <= q.length(); i++) {
+                    firstRow[i] = i;
+                }
+                for (Map.Entry<Character, Node> child : root.children.entrySet()) {
+                    collectFuzzy(child.getValue(), child.getKey(), q, firstRow, fuzzy);
+                }
+                fuzzy.sort(BY_WEIGHT);
+                for (Entry e : fuzzy) {
+                    found.putIfAbsent(e, Boolean.TRUE);
+                }
+            }
+
+            List<Suggestion> result = new ArrayList<>(Math.min(limit, found.size()));
+            for (Entry e : found.keySet()) {
+                if (result.size() == limit) {
+                    break;
+                }
+                result.add(new Suggestion(e.label, e.type, e.weight));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // One Levenshtein DP row per trie edge; a subtree is abandoned as soon as every cell exceeds one edit
+    private void collectFuzzy(Node node, char c, String q, int[] previous, List<Entry> out) {
+        int n = q.length();
+        int[] row = new int[n + 1];
+        row[0] = previous[0] + 1;
+        int best = row[0];
+        for (int i = 1; i <= n; i++) {
+            int substitution = previous[i - 1] + (q.charAt(i - 1) == c ? 0 : 1);
+            row[i] = Math.min(Math.min(row[i - 1] + 1, previous[i] + 1), substitution);
+            best = Math.min(best, row[i]);
+        }
+
+        if (row[n] <= 1) {
+            // The path so far is within one edit of the whole prefix: everything below is a candidate
+            out.addAll(Arrays.asList(node.top));
+            return;
+        }
+        if (best > 1) {
+            return;
+        }
+        for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+            collectFuzzy(child.getValue(), child.getKey(), q, row, out);
+        }
+    }
+
+    private void updatePath(String path, Entry entry, boolean removed) {
+        List<Node> nodes = new ArrayList<>(path.length() + 1);
+        Node node = root;
+        nodes.add(node);
+        for (int i = 0; i < path.length() && node != null; i++) {
+            node = node.children.get(path.charAt(i));
+            nodes.add(node);
+        }
+        if (node == null) {
+            return;
+        }
+        if (removed) {
+            node.terminals.remove(entry);
+        }
+
+        // Bottom-up: each node's top-K is rebuilt from its own terminals and its children's top-K
+        for (int depth = nodes.size() - 1; depth >= 0; depth--) {
+            Node current = nodes.get(depth);
+            if (depth > 0 && current.terminals.isEmpty() && current.children.isEmpty()) {
+                nodes.get(depth - 1).children.remove(path.charAt(depth - 1));
+                continue;
+            }
+            recomputeTop(current);
+        }
+    }
+
+    private static void recomputeTop(Node node) {
+        List<Entry> candidates = new ArrayList<>(node.terminals);
+        for (Node child : node.children.values()) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(BY_WEIGHT);
+        List<Entry> top = new ArrayList<>(TOP_K);
+        for (Entry e : candidates) {
+            if (top.size() == TOP_K) {
+                break;
+            }
+            // The same phrase can arrive through several word-start paths
+            if (!top.contains(e)) {
+                top.add(e);
+            }
+        }
+        node.top = top.toArray(new Entry[0]);
+    }
+
+    private Node walk(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    private Node walkOrCreate(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+        }
+        return node;
+    }
+
+    // "ao thun nam" is indexed as "ao thun nam", "thun nam" and "nam"
+    private static List<String> paths(String key) {
+        List<String> paths = new ArrayList<>(MAX_WORD_STARTS);
+        paths.add(key);
+        int start = 0;
+        while (paths.size() < MAX_WORD_STARTS) {
+            int space = key.indexOf(' ', start);
+            if (space < 0) {
+                break;
+            }
+            start = space + 1;
+            paths.add(key.substring(start));
+        }
+        return paths;
+    }
+
+    static String normalize(String text) {
+        return String.join(" ", SearchTextUtil.tokenize(text));
+    }
+}
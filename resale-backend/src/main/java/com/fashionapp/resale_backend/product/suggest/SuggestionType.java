@@ -0,0 +1,7 @@
+package com.fashionapp.resale_backend.product.suggest;
+
+public enum SuggestionType {
+    PRODUCT,
+    BRAND,
+    CATEGORY
+}
@@ -0,0 +1,121 @@
+package com.fashionapp.resale_backend.product.trending;
+
+import com.fashionapp.resale_backend.product.ProductSalesEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time-decayed sales score per product ("trending").
+ *
+ * <p>Uses forward decay in log space: a sale of weight w at time t adds w·e^(λ(t − epoch)) to the product's
+ * score, and what we keep is the natural log of that sum. Because every product is measured against the same
+ * fixed epoch, scores never need to be decayed in place — comparing them gives the same order as comparing
+ * the exponentially decayed totals "now" — and the log keeps the numbers small forever.
+ * So only products that sold since the last flush are written back.
+ *
+ * <p>Sales since the last flush are summed (in log space) in a concurrent map after the order/payment commits, and
+ * on a fixed delay each sum is merged into {@code product_listing.trending_score} by the database itself, with the
+ * same log-add-exp as in memory. Every instance flushes only its own sales, so several instances add up instead of
+ * overwriting each other. A product that never sold scores 0, below any sale after the epoch.
+ */
+@Slf4j
+@Service
+public class TrendingScoreService {
+
+    private static final Instant EPOCH = Instant.parse("2026-01-01T00:00:00Z");
+    private static final int FLUSH_BATCH_SIZE = 500;
+    // ln(e^score + e^delta); the floor on the exponent keeps EXP from underflowing, where PostgreSQL raises an error
+    private static final String MERGE_SCORE = "UPDATE product_listing SET trending_score = CASE WHEN trending_score > 0 "
+            + "THEN GREATEST(trending_score, ?) + LN(1 + EXP(GREATEST(-ABS(trending_score - ?), -50))) ELSE ? END "
+            + "WHERE product_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final double lambdaPerSecond;
+    private final double orderedWeight;
+    private final double paidWeight;
+
+    // Log of the sales added since the last flush, per product
+    private final Map<Long, Double> pending = new ConcurrentHashMap<>();
+
+    public TrendingScoreService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${app.trending.half-life:PT72H}") Duration halfLife,
+                                @Value("${app.trending.ordered-weight:1.0}") double orderedWeight,
+                                @Value("${app.trending.paid-weight:2.0}") double paidWeight) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.lambdaPerSecond = Math.log(2) / halfLife.toSeconds();
+        this.orderedWeight = orderedWeight;
+        this.paidWeight = paidWeight;
+    }
+
+    @TransactionalEventListener
+    public void onSales(ProductSalesEvent event) {
+        double weight = event.stage() == ProductSalesEvent.Stage.PAID ? paidWeight : orderedWeight;
+        double elapsed = Duration.between(EPOCH, Instant.now()).toSeconds();
+
+        event.quantityByProduct().forEach((productId, quantity) -> {
+            if (quantity == null || quantity <= 0) {
+                return;
+            }
+            double logContribution = Math.log(weight * quantity) + lambdaPerSecond * elapsed;
+            pending.merge(productId, logContribution, TrendingScoreService::logAddExp);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.flush-interval:PT1M}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(FLUSH_BATCH_SIZE);
+        for (Long productId : List.copyOf(pending.keySet())) {
+            // Taken off the map as it is written: a sale racing with the flush starts a new sum, written next time
+            Double delta = pending.remove(productId);
+            if (delta == null) {
+                continue;
+            }
+            batch.add(new Object[]{delta, delta, delta, productId});
+            if (batch.size() == FLUSH_BATCH_SIZE) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        write(batch);
+    }
+
+    private void write(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            // One transaction per batch: a failed batch is applied not at all, so retrying it cannot count a sale twice
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(MERGE_SCORE, batch,
+                    new int[]{Types.DOUBLE, Types.DOUBLE, Types.DOUBLE, Types.BIGINT}));
+        } catch (RuntimeException e) {
+            // Put the sums back so the next run retries them
+            batch.forEach(row -> pending.merge((Long) row[3], (Double) row[0], TrendingScoreService::logAddExp));
+            log.error("Trending score flush failed for {} products", batch.size(), e);
+        }
+    }
+
+    // ln(e^a + e^b) without overflow
+    private static double logAddExp(double a, double b) {
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+}
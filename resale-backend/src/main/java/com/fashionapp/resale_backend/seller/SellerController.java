@@ -1,11 +1,17 @@
 package com.fashionapp.resale_backend.seller;
 
+import com.fashionapp.resale_backend.analytics.dto.ListingAnalyticsDto;
 import com.fashionapp.resale_backend.product.ProductService;
 import com.fashionapp.resale_backend.product.dto.ProductResponseDto;
+import com.fashionapp.resale_backend.product.dto.SellerInventoryItemDto;
 import com.fashionapp.resale_backend.seller.dto.SellerStatsDto;
 import com.fashionapp.resale_backend.user.User;
 import com.fashionapp.resale_backend.user.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -42,4 +48,29 @@ public class SellerController {
 
         return ResponseEntity.ok(productService.getProductsBySeller(seller.getId()));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/inventory")
+    public ResponseEntity<Page<SellerInventoryItemDto>> getInventory(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Integer lowStockThreshold,
+            @RequestParam(required = false) String search,
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User seller = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Authenticated seller not found"));
+
+        return ResponseEntity.ok(sellerService.getInventory(
+                seller.getId(), status, categoryId, lowStockThreshold, search, pageable));
+    }
+
+    @GetMapping("/analytics/listings")
+    public ResponseEntity<Page<ListingAnalyticsDto>> getListingAnalytics(
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User seller = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Authenticated seller not found"));
+
+        return ResponseEntity.ok(sellerService.getListingAnalytics(seller.getId(), pageable));
+    }
+}
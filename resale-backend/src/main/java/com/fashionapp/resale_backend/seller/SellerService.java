@@ -1,14 +1,21 @@
 package com.fashionapp.resale_backend.seller;
 
+import com.fashionapp.resale_backend.analytics.ListingAnalyticsService;
+import com.fashionapp.resale_backend.analytics.dto.ListingAnalyticsDto;
+import com.fashionapp.resale_backend.product.CategorySnapshotService;
 import com.fashionapp.resale_backend.product.ProductRepository;
+import com.fashionapp.resale_backend.product.dto.SellerInventoryItemDto;
 import com.fashionapp.resale_backend.payment.Payout;
 import com.fashionapp.resale_backend.payment.PayoutRepository;
 import com.fashionapp.resale_backend.seller.dto.SellerStatsDto;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -16,6 +23,28 @@ public class SellerService {
 
     private final ProductRepository productRepository;
     private final PayoutRepository payoutRepository;
+    private final CategorySnapshotService categorySnapshotService;
+    private final ListingAnalyticsService listingAnalyticsService;
+
+    /**
+     * Paginated inventory console. Aggregates are computed by the database, and each row is a flat projection
+     * rather than a full ProductResponseDto, so the cost per page does not grow with the size of the shop.
+     */
+    @Transactional(readOnly = true)
+    public Page<SellerInventoryItemDto> getInventory(Long sellerId, String status, Long categoryId,
+                                                     Integer lowStockThreshold, String search, Pageable pageable) {
+        Set<Long> categoryIds = categoryId != null ? categorySnapshotService.current().getSubtreeIds(categoryId) : Set.of(-1L);
+        String pattern = search != null && !search.isBlank() ? "%" + search.trim().toLowerCase() + "%" : null;
+        String normalizedStatus = status != null && !status.isBlank() ? status.trim().toUpperCase() : null;
+
+        return productRepository.findSellerInventory(sellerId, normalizedStatus, categoryId == null, categoryIds,
+                pattern, lowStockThreshold, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ListingAnalyticsDto> getListingAnalytics(Long sellerId, Pageable pageable) {
+        return listingAnalyticsService.getListingAnalytics(sellerId, pageable);
+    }
 
     @Transactional(readOnly = true)
     public SellerStatsDto getStats(Long sellerId) {
@@ -34,6 +63,13 @@ public class SellerService {
         // 4. Total sales is the number of payout events
         int totalSales = payouts.size();
 
-        return new SellerStatsDto(totalRevenue, (int) activeCount, totalSales);
+        // 5. Engagement from the analytics rollups
+        ListingAnalyticsService.SellerAnalytics analytics = listingAnalyticsService.getSellerAnalytics(sellerId);
+        long uniqueViewers = analytics.uniqueViewers();
+        double conversionRate = uniqueViewers > 0 ? (double) analytics.totals().orders() / uniqueViewers : 0;
+
+        return new SellerStatsDto(totalRevenue, (int) activeCount, totalSales,
+                analytics.totals().views(), uniqueViewers, analytics.totals().tryOns(),
+                analytics.totals().orders(), conversionRate);
     }
 }
\ No newline at end of file
@@ -3,5 +3,10 @@ package com.fashionapp.resale_backend.seller.dto;
 public record SellerStatsDto(
         Double totalRevenue,
         Integer activeListings,
-        Integer totalSales
+        Integer totalSales,
+        Long views,
+        Long uniqueViewers,
+        Long tryOns,
+        Long orders,
+        Double conversionRate
 ) {}
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.fashionapp.resale_backend.user;
+
+/**
+ * Published when a seller changes their shop name, so read models that copy it can follow.
+ */
+public record ShopRenamedEvent(Long sellerId, String shopName) {}
@@ -7,12 +7,14 @@ import com.fashionapp.resale_backend.common.storage.GcsService;
 import com.fashionapp.resale_backend.user.dto.ProfileUpdateDto;
 import com.fashionapp.resale_backend.user.dto.UserRegistrationDto;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +25,7 @@ public class UserService {
     private final UserPhotoRepository userPhotoRepository;
     private final GcsService gcsService;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public User registerUser(UserRegistrationDto registrationDto) {
@@ -70,6 +73,9 @@ public class UserService {
         user.setLastName(updateDto.lastName());
         user.setHeight(updateDto.height());
         user.setWeight(updateDto.weight());
+        if (!Objects.equals(user.getShopName(), updateDto.shopName())) {
+            eventPublisher.publishEvent(new ShopRenamedEvent(user.getId(), updateDto.shopName()));
+        }
         user.setShopName(updateDto.shopName());
         return userRepository.save(user);
     }
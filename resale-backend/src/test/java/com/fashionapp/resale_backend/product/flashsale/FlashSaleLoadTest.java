@@ -0,0 +1,263 @@
+package com.fashionapp.resale_backend.product.flashsale;
+
+import com.fashionapp.resale_backend.product.InsufficientStockException;
+import com.fashionapp.resale_backend.product.Product;
+import com.fashionapp.resale_backend.product.ProductChangedEvent;
+import com.fashionapp.resale_backend.product.ProductVariant;
+import com.fashionapp.resale_backend.product.ProductVariantRepository;
+import com.fashionapp.resale_backend.product.VariantStockService;
+import com.fashionapp.resale_backend.user.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Many buyers checking out the same variant, through the regular path (conditional UPDATE on one row) and through
+ * flash-sale mode (striped counters, fair admission, batched write-back). Runs against an in-memory H2 database;
+ * each checkout holds its transaction open for {@code loadtest.checkout-work-ms} to stand in for the order,
+ * item and shipping inserts that follow the stock decrement in OrderService, which is what the row lock is held
+ * across on the regular path. Each checkout publishes the stock event OrderService.placeOrder publishes, and a
+ * stand-in for ProductStockRefresher queues it after commit and makes its row writes (version bump, listing stock)
+ * once per {@code loadtest.stock-refresh-ms}.
+ *
+ * <p>The numbers therefore cover the stock path and the row locks it takes, not the whole of placeOrder: JPA
+ * loading, the buyer/address/shipping queries, the after-commit cache, search and facet listeners and HTTP are
+ * left out. Logs one line per path at INFO; the assertions check that neither path oversells and that the database
+ * and listing rows end at the true stock. Tagged {@code load} and left out of the default build: run it with
+ * {@code mvn test -Pload}.
+ */
+@Slf4j
+@Tag("load")
+class FlashSaleLoadTest {
+
+    // Raise with -Dloadtest.buyers=20000 -Dloadtest.stock=5000 for a longer run
+    private static final int BUYERS = Integer.getInteger("loadtest.buyers", 2000);
+    private static final int STOCK = Integer.getInteger("loadtest.stock", 500);
+    private static final int CLIENT_THREADS = Integer.getInteger("loadtest.threads", 64);
+    private static final long CHECKOUT_WORK_MS = Long.getLong("loadtest.checkout-work-ms", 2);
+    private static final long STOCK_REFRESH_MS = Long.getLong("loadtest.stock-refresh-ms", 1000);
+
+    private static final long REGULAR_VARIANT = 1L;
+    private static final long FLASH_VARIANT = 2L;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService stockRefresher;
+    private final Set<Long> stockChanged = ConcurrentHashMap.newKeySet();
+    private FlashSaleService flashSaleService;
+    private VariantStockService variantStockService;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:flashsale;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=60000");
+        dataSource.setMaximumPoolSize(32);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, version BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE product_listing (id BIGINT PRIMARY KEY, total_stock INT)");
+        jdbcTemplate.execute("CREATE TABLE product_variants (id BIGINT PRIMARY KEY, product_id BIGINT, stock_quantity INT)");
+        jdbcTemplate.execute("CREATE TABLE placed_orders (id BIGINT AUTO_INCREMENT PRIMARY KEY, variant_id BIGINT)");
+        for (long variantId : new long[]{REGULAR_VARIANT, FLASH_VARIANT}) {
+            jdbcTemplate.update("INSERT INTO products VALUES (?, 0)", productOf(variantId));
+            jdbcTemplate.update("INSERT INTO product_listing VALUES (?, ?)", productOf(variantId), STOCK);
+            jdbcTemplate.update("INSERT INTO product_variants VALUES (?, ?, ?)", variantId, productOf(variantId), STOCK);
+        }
+
+        ProductVariantRepository variantRepository = mock(ProductVariantRepository.class);
+        when(variantRepository.findWithProductByIdIn(any())).thenAnswer(call -> {
+            List<ProductVariant> variants = new ArrayList<>();
+            for (Long id : call.<Collection<Long>>getArgument(0)) {
+                variants.add(variant(id));
+            }
+            return variants;
+        });
+
+        flashSaleService = new FlashSaleService(jdbcTemplate, transactionTemplate, variantRepository,
+                mock(UserRepository.class), this::onEvent, 0, 8, BUYERS, Duration.ofSeconds(30), Duration.ofSeconds(5));
+        variantStockService = new VariantStockService(jdbcTemplate, variantRepository, flashSaleService);
+
+        stockRefresher = Executors.newSingleThreadScheduledExecutor();
+        stockRefresher.scheduleWithFixedDelay(this::refreshStock, STOCK_REFRESH_MS, STOCK_REFRESH_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockRefresher.shutdownNow();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.close();
+    }
+
+    @Test
+    void compareCheckoutPaths() throws Exception {
+        Result regular = run("regular", () -> checkout(REGULAR_VARIANT));
+
+        flashSaleService.open(FLASH_VARIANT);
+        Result flash = run("flash-sale", () -> flashSaleService.admit(Map.of(FLASH_VARIANT, 1), () -> checkout(FLASH_VARIANT)));
+        flashSaleService.flush();
+        refreshStock();
+
+        regular.report();
+        flash.report();
+
+        for (long variantId : new long[]{REGULAR_VARIANT, FLASH_VARIANT}) {
+            assertEquals(STOCK, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM placed_orders WHERE variant_id = ?", Integer.class, variantId));
+            assertEquals(0, jdbcTemplate.queryForObject(
+                    "SELECT stock_quantity FROM product_variants WHERE id = ?", Integer.class, variantId));
+            assertEquals(0, jdbcTemplate.queryForObject(
+                    "SELECT total_stock FROM product_listing WHERE id = ?", Integer.class, productOf(variantId)));
+        }
+        assertEquals(STOCK, regular.sold());
+        assertEquals(STOCK, flash.sold());
+        assertEquals(BUYERS - STOCK, regular.rejected());
+        assertEquals(BUYERS - STOCK, flash.rejected());
+    }
+
+    // The part of OrderService.placeOrder that touches stock, plus the rest of its transaction as a fixed cost
+    private Boolean checkout(long variantId) {
+        return transactionTemplate.execute(status -> {
+            variantStockService.decrement(Map.of(variantId, 1));
+            jdbcTemplate.update("INSERT INTO placed_orders (variant_id) VALUES (?)", variantId);
+            // As placeOrder: flash-sale lines are published by the sale's flush instead
+            if (!flashSaleService.isFlashSale(variantId)) {
+                onEvent(ProductChangedEvent.stock(List.of(productOf(variantId))));
+            }
+            sleep(CHECKOUT_WORK_MS);
+            return true;
+        });
+    }
+
+    // ProductStockRefresher: stock-only changes are queued once their transaction commits
+    private void onEvent(Object event) {
+        if (!(event instanceof ProductChangedEvent changed) || !changed.stockOnly()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stockChanged.addAll(changed.productIds());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stockChanged.addAll(changed.productIds());
+            }
+        });
+    }
+
+    // ...and their version bump and listing refresh made by one scheduled transaction
+    private synchronized void refreshStock() {
+        Set<Long> productIds = new HashSet<>(stockChanged);
+        stockChanged.removeAll(productIds);
+        transactionTemplate.executeWithoutResult(status -> productIds.forEach(id -> {
+            jdbcTemplate.update("UPDATE products SET version = version + 1 WHERE id = ?", id);
+            jdbcTemplate.update("UPDATE product_listing SET total_stock = (SELECT SUM(stock_quantity) FROM product_variants "
+                    + "WHERE product_id = ?) WHERE id = ?", id, id);
+        }));
+    }
+
+    private Result run(String name, Supplier<Boolean> checkout) throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        long[] latencies = new long[BUYERS];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> buyers = new ArrayList<>(BUYERS);
+
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENT_THREADS);
+        try {
+            for (int i = 0; i < BUYERS; i++) {
+                int buyer = i;
+                buyers.add(pool.submit(() -> {
+                    start.await();
+                    long began = System.nanoTime();
+                    try {
+                        checkout.get();
+                        sold.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    } catch (ResponseStatusException e) {
+                        throw new IllegalStateException("Unexpected " + e.getStatusCode() + " for buyer " + buyer, e);
+                    }
+                    latencies[buyer] = System.nanoTime() - began;
+                    return null;
+                }));
+            }
+            long began = System.nanoTime();
+            start.countDown();
+            for (Future<?> f : buyers) {
+                f.get();
+            }
+            long wallNanos = System.nanoTime() - began;
+            Arrays.sort(latencies);
+            return new Result(name, sold.get(), rejected.get(), wallNanos, latencies[(int) (BUYERS * 0.99) - 1]);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private record Result(String name, int sold, int rejected, long wallNanos, long p99Nanos) {
+        void report() {
+            double seconds = wallNanos / 1e9;
+            log.info("{}: {} sold, {} rejected in {} ms ({} orders/s, p99 {} ms)", name, sold, rejected,
+                    Math.round(seconds * 1000), Math.round(sold / seconds), String.format("%.1f", p99Nanos / 1e6));
+        }
+    }
+
+    private static long productOf(long variantId) {
+        return 100 + variantId;
+    }
+
+    private static ProductVariant variant(Long id) {
+        Product product = new Product();
+        product.setId(productOf(id));
+        product.setName("Drop " + id);
+        ProductVariant variant = new ProductVariant();
+        variant.setId(id);
+        variant.setSize("M");
+        variant.setProduct(product);
+        variant.setStockQuantity(0);
+        return variant;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.fashionapp.resale_backend.product.protobuf;
+
+import com.fashionapp.resale_backend.product.dto.ProductImageDto;
+import com.fashionapp.resale_backend.product.dto.ProductResponseDto;
+import com.fashionapp.resale_backend.product.dto.ProductVariantDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Payload size and encode/decode time of a 50-product ProductResponseDto page in JSON, CBOR, Smile and protobuf.
+ * The size and round-trip checks run with the regular tests. The timings are a single-JVM micro-benchmark, tagged
+ * {@code load} and run only with {@code mvn test -Pload}; compare them with each other, not across machines.
+ */
+@Slf4j
+class ProductPayloadBenchmarkTest {
+
+    private static final int PAGE_SIZE = 50;
+    // Raise with -Dbenchmark.iterations=20000 for steadier numbers
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 2000);
+    private static final int WARMUP = Math.max(3000, ITERATIONS / 2);
+
+    private interface Codec {
+        byte[] encode(List<ProductResponseDto> page) throws IOException;
+
+        List<ProductResponseDto> decode(byte[] bytes) throws IOException;
+    }
+
+    private final List<ProductResponseDto> page = samplePage();
+    private final Codec json = jackson(new JsonFactory());
+    private final Codec cbor = jackson(new CBORFactory());
+    private final Codec smile = jackson(new SmileFactory());
+    private final Codec protobuf = new Codec() {
+        public byte[] encode(List<ProductResponseDto> p) {
+            return ProductProtobufWriter.productList(p);
+        }
+
+        public List<ProductResponseDto> decode(byte[] bytes) throws IOException {
+            return decodeProductList(bytes);
+        }
+    };
+
+    @Test
+    void binaryFormatsAreSmallerAndRoundTrip() throws IOException {
+        int jsonSize = json.encode(page).length;
+        int cborSize = cbor.encode(page).length;
+        int smileSize = smile.encode(page).length;
+        int protobufSize = protobuf.encode(page).length;
+
+        assertTrue(cborSize < jsonSize);
+        assertTrue(smileSize < jsonSize);
+        assertTrue(protobufSize < cborSize);
+        assertEquals(page, protobuf.decode(protobuf.encode(page)));
+        assertEquals(page, cbor.decode(cbor.encode(page)));
+        assertEquals(page, smile.decode(smile.encode(page)));
+    }
+
+    @Test
+    @Tag("load")
+    void compareEncodeDecodeTimes() throws IOException {
+        report("json", json);
+        report("cbor", cbor);
+        report("smile", smile);
+        report("protobuf", protobuf);
+    }
+
+    private void report(String name, Codec codec) throws IOException {
+        byte[] encoded = codec.encode(page);
+        for (int i = 0; i < WARMUP; i++) {
+            codec.decode(codec.encode(page));
+        }
+
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            encoded = codec.encode(page);
+        }
+        double encodeMicros = (System.nanoTime() - started) / 1000.0 / ITERATIONS;
+
+        started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            codec.decode(encoded);
+        }
+        double decodeMicros = (System.nanoTime() - started) / 1000.0 / ITERATIONS;
+
+        log.info("{}: {} bytes ({} gzipped), encode {} us, decode {} us", name, encoded.length, gzipped(encoded),
+                String.format("%.1f", encodeMicros), String.format("%.1f", decodeMicros));
+    }
+
+    private static Codec jackson(JsonFactory factory) {
+        ObjectMapper mapper = new ObjectMapper(factory);
+        return new Codec() {
+            public byte[] encode(List<ProductResponseDto> page) throws IOException {
+                return mapper.writeValueAsBytes(page);
+            }
+
+            public List<ProductResponseDto> decode(byte[] bytes) throws IOException {
+                return mapper.readValue(bytes, mapper.getTypeFactory()
+                        .constructCollectionType(List.class, ProductResponseDto.class));
+            }
+        };
+    }
+
+    private static int gzipped(byte[] bytes) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(bytes);
+        }
+        return buffer.size();
+    }
+
+    private static List<ProductResponseDto> samplePage() {
+        Random random = new Random(42);
+        String[] brands = {"Zara", "Uniqlo", "H&M", "Levi's", "Nike", "Adidas"};
+        String[] sizes = {"XS", "S", "M", "L", "XL"};
+        String[] colors = {"Black", "White", "Navy", "Beige"};
+
+        List<ProductResponseDto> page = new ArrayList<>();
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            ProductResponseDto dto = new ProductResponseDto();
+            dto.setId(1000 + id);
+            dto.setName("Vintage cotton shirt " + id);
+            dto.setDescription("Gently worn, no stains or holes. Fits true to size, measurements in the photos. #" + id);
+            dto.setBasePrice(50000.0 + random.nextInt(2000) * 1000);
+            dto.setBrand(brands[random.nextInt(brands.length)]);
+            dto.setCondition("LIKE_NEW");
+            dto.setCategoryName("Shirts");
+            dto.setSellerShopName("Second Closet " + (id % 7));
+            dto.setStatus("ACTIVE");
+
+            List<ProductVariantDto> variants = new ArrayList<>();
+            for (int v = 0; v < 4; v++) {
+                ProductVariantDto variant = new ProductVariantDto();
+                variant.setId(id * 10 + v);
+                variant.setSize(sizes[random.nextInt(sizes.length)]);
+                variant.setColor(colors[random.nextInt(colors.length)]);
+                variant.setStockQuantity(random.nextInt(5));
+                variants.add(variant);
+            }
+            dto.setVariants(variants);
+
+            List<ProductImageDto> images = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                String object = "products/" + id + "/" + i + ".jpg";
+                images.add(new ProductImageDto(id * 10 + i,
+                        "https://storage.googleapis.com/resale-images/" + object, "gs://resale-images/" + object));
+            }
+            dto.setImages(images);
+            page.add(dto);
+        }
+        return page;
+    }
+
+    // Test-side reader for the ProductList message; clients would use classes generated from product.proto
+    private static List<ProductResponseDto> decodeProductList(byte[] bytes) throws IOException {
+        List<ProductResponseDto> products = new ArrayList<>();
+        CodedInputStream in = CodedInputStream.newInstance(bytes);
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            if (WireFormat.getTagFieldNumber(tag) == 1) {
+                products.add(decodeProduct(in.readByteArray()));
+            } else {
+                in.skipField(tag);
+            }
+        }
+        return products;
+    }
+
+    private static ProductResponseDto decodeProduct(byte[] bytes) throws IOException {
+        ProductResponseDto dto = new ProductResponseDto();
+        dto.setVariants(new ArrayList<>());
+        dto.setImages(new ArrayList<>());
+        CodedInputStream in = CodedInputStream.newInstance(bytes);
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> dto.setId(in.readInt64());
+                case 2 -> dto.setName(in.readString());
+                case 3 -> dto.setDescription(in.readString());
+                case 4 -> dto.setBasePrice(in.readDouble());
+                case 5 -> dto.setBrand(in.readString());
+                case 6 -> dto.setCondition(in.readString());
+                case 7 -> dto.setCategoryName(in.readString());
+                case 8 -> dto.setSellerShopName(in.readString());
+                case 9 -> dto.setStatus(in.readString());
+                case 10 -> dto.getVariants().add(decodeVariant(in.readByteArray()));
+                case 11 -> dto.getImages().add(decodeImage(in.readByteArray()));
+                default -> in.skipField(tag);
+            }
+        }
+        return dto;
+    }
+
+    private static ProductVariantDto decodeVariant(byte[] bytes) throws IOException {
+        ProductVariantDto variant = new ProductVariantDto();
+        CodedInputStream in = CodedInputStream.newInstance(bytes);
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> variant.setId(in.readInt64());
+                case 2 -> variant.setSize(in.readString());
+                case 3 -> variant.setColor(in.readString());
+                case 4 -> variant.setStockQuantity(in.readInt32());
+                default -> in.skipField(tag);
+            }
+        }
+        return variant;
+    }
+
+    private static ProductImageDto decodeImage(byte[] bytes) throws IOException {
+        ProductImageDto image = new ProductImageDto();
+        CodedInputStream in = CodedInputStream.newInstance(bytes);
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> image.setId(in.readInt64());
+                case 2 -> image.setUrl(in.readString());
+                case 3 -> image.setGcsUri(in.readString());
+                default -> in.skipField(tag);
+            }
+        }
+        return image;
+    }
+}